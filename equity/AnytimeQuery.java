@@ -0,0 +1,172 @@
+package equity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+import main.Card;
+import main.CardSet;
+import main.Dealer;
+import main.PartialShuffleDeck;
+import main.Player;
+
+/**
+ * An equity query that refines a Monte Carlo estimate until a deadline or a
+ * target standard error, whichever comes first.
+ *
+ * Each worker deals whole hands with its own Dealer, where the hero sits at
+ * seat 0 with pinned hole cards and board, and adds them to the shared tally
+ * in batches. The workers run one batch at a time on an AnytimeScheduler, so
+ * concurrent queries share the threads of the pool. The query completes its
+ * future with the merged tally when a batch reaches the target error or the
+ * deadline, or when the deadline passes before any batch is added. The workers
+ * stop at the end of their batch once the future is done, so cancelling the
+ * future stops them too.
+ */
+class AnytimeQuery {
+    static final int BATCH_SIZE = 256; // hands dealt each time a worker runs
+    static final int MIN_SAMPLES = 1000; // hands before the standard error is trusted
+    static final int CLOCK_INTERVAL = 16; // hands dealt between two reads of the clock within a batch
+
+    private final CardSet holeCards;
+    private final int numOpponents;
+    private final CardSet board;
+    private final CardSet dead;
+    private final long deadline; // System.nanoTime() at which the query completes
+    private final double targetError;
+
+    private final Tally tally = new Tally(); // guarded by this
+    final CompletableFuture<EquityResult> future = new CompletableFuture<>();
+
+    /**
+     * Constructor for AnytimeQuery.
+     *
+     * @param budgetNanos Time before the query completes, in nanoseconds
+     * @param targetError Standard error at which the query completes early, 0 to
+     *                    always run until the deadline
+     */
+    AnytimeQuery(CardSet holeCards, int numOpponents, CardSet board, CardSet dead, long budgetNanos,
+            double targetError) {
+        new EquityCalculator.Deal(holeCards, numOpponents, board, dead); // checks the cards
+        if (budgetNanos <= 0)
+            throw new IllegalArgumentException("Invalid time budget: " + budgetNanos + " ns");
+        if (!(targetError >= 0))
+            throw new IllegalArgumentException("Invalid target standard error: " + targetError);
+
+        this.holeCards = holeCards;
+        this.numOpponents = numOpponents;
+        this.board = board;
+        this.dead = dead;
+        this.deadline = System.nanoTime() + budgetNanos;
+        this.targetError = targetError;
+    }
+
+    /**
+     * Starts the workers of the query, and the timer of the deadline.
+     *
+     * @param scheduler  Scheduler that runs the workers
+     * @param numWorkers Number of workers, e.g. the parallelism of the pool
+     * @param random     Generator that is split into a generator per worker
+     */
+    void start(AnytimeScheduler scheduler, int numWorkers, SplittableGenerator random) {
+        for (int i = 0; i < numWorkers; i++) {
+            scheduler.submit(new Worker(random.split()));
+        }
+
+        // runs on the timer thread, finish() is short
+        Executor timer = CompletableFuture.delayedExecutor(this.deadline - System.nanoTime(), TimeUnit.NANOSECONDS,
+                Runnable::run);
+        timer.execute(this::finish);
+    }
+
+    /**
+     * A worker of the query, which deals a batch of hands each time the
+     * scheduler runs it.
+     */
+    private class Worker implements BooleanSupplier {
+        private final SplittableGenerator random;
+        private final Tally batch = new Tally();
+        private Dealer dealer; // created by the first batch
+
+        Worker(SplittableGenerator random) {
+            this.random = random;
+        }
+
+        /**
+         * Deals a batch of hands.
+         *
+         * @return Whether the worker should deal another batch
+         */
+        @Override
+        public boolean getAsBoolean() {
+            if (AnytimeQuery.this.future.isDone()) {
+                return false;
+            }
+
+            try {
+                if (this.dealer == null) {
+                    this.dealer = AnytimeQuery.this.newDealer(this.random);
+                }
+                this.batch.clear();
+                for (int i = 1; i <= BATCH_SIZE; i++) {
+                    this.dealer.dealHand();
+                    this.batch.addWinners(this.dealer.determineWinnerMask());
+                    if (i % CLOCK_INTERVAL == 0 && System.nanoTime() - AnytimeQuery.this.deadline >= 0) {
+                        break; // add() completes the query
+                    }
+                }
+                return AnytimeQuery.this.add(this.batch);
+            } catch (RuntimeException e) {
+                AnytimeQuery.this.future.completeExceptionally(e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Returns a Dealer where the hero sits at seat 0 with pinned hole cards and
+     * board.
+     */
+    private Dealer newDealer(SplittableGenerator random) {
+        Dealer dealer = new Dealer(new PartialShuffleDeck(random));
+        for (int seat = 0; seat <= this.numOpponents; seat++) {
+            dealer.addPlayer(new Player(seat));
+        }
+        dealer.setDeadCards(this.dead);
+        dealer.pinHoleCards(0, Card.fromId(this.holeCards.first()),
+                Card.fromId(this.holeCards.next(this.holeCards.first())));
+        dealer.pinBoard(this.board.toList().toArray(new Card[0]));
+        return dealer;
+    }
+
+    /**
+     * Adds a batch to the tally, and completes the query if it is precise enough
+     * or out of time.
+     *
+     * @return Whether the worker should deal another batch
+     */
+    private synchronized boolean add(Tally batch) {
+        if (this.future.isDone()) {
+            return false;
+        }
+
+        this.tally.merge(batch);
+        EquityResult result = this.tally.toResult(false);
+        if ((result.getNumDeals() >= MIN_SAMPLES && result.getStandardError() <= this.targetError)
+                || System.nanoTime() - this.deadline >= 0) {
+            this.future.complete(result);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Completes the query with the hands dealt so far. The equity is NaN if no
+     * hand was dealt yet.
+     */
+    private synchronized void finish() {
+        this.future.complete(this.tally.toResult(false));
+    }
+}
@@ -0,0 +1,65 @@
+package equity;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Shares the threads of a pool between the workers of the anytime queries. A
+ * worker deals one batch of hands each time it runs, and then goes back to the
+ * end of a queue, so the workers of concurrent queries take turns instead of
+ * holding a thread until their deadline.
+ *
+ * The queue is drained by at most one runner task per thread of the pool. A
+ * runner stops once the queue is empty, and the next worker submitted starts a
+ * new one.
+ */
+class AnytimeScheduler {
+    private final ForkJoinPool pool;
+    private final ConcurrentLinkedQueue<BooleanSupplier> workers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numRunners = new AtomicInteger();
+
+    AnytimeScheduler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Queues a worker, which is run until it returns false.
+     *
+     * @param worker Runs a slice of work and returns whether it has more
+     */
+    void submit(BooleanSupplier worker) {
+        this.workers.add(worker);
+        if (this.tryAddRunner()) {
+            this.pool.execute(this::run);
+        }
+    }
+
+    private boolean tryAddRunner() {
+        for (int n = this.numRunners.get(); n < this.pool.getParallelism(); n = this.numRunners.get()) {
+            if (this.numRunners.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void run() {
+        while (true) {
+            BooleanSupplier worker = this.workers.poll();
+            if (worker != null) {
+                if (worker.getAsBoolean()) {
+                    this.workers.add(worker);
+                }
+                continue;
+            }
+
+            this.numRunners.decrementAndGet();
+            // a worker queued since the poll may have found every runner busy
+            if (this.workers.isEmpty() || !this.tryAddRunner()) {
+                return;
+            }
+        }
+    }
+}
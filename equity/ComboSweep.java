@@ -0,0 +1,166 @@
+package equity;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import main.BoardEvaluator;
+
+/**
+ * Compares every combo of a set against every other one on a board, without
+ * looking at any pair of combos. The combos are scored against the board,
+ * sorted by strength and swept from the weakest to the strongest while adding
+ * up the villain weight below the current strength, in total and per card.
+ *
+ * The villain weight is kept per bucket, e.g. per hole-card class for
+ * PreflopEquityTable, or in a single bucket for RangeDeal. The weight of a
+ * bucket that a hero combo beats is the weight below it minus the weight below
+ * it of the combos that hold one of its cards. Only the hero combo itself holds
+ * both, and it is never below itself. The weight that it ties or faces is
+ * counted the same way, but the hero combo is then subtracted twice, so its own
+ * weight is added back.
+ *
+ * A ComboSweep reuses its buffers, so it is not thread-safe.
+ */
+final class ComboSweep {
+    private static final int COMBO_BITS = 11; // bits of a combo index in a sort key
+    private static final int COMBO_MASK = (1 << COMBO_BITS) - 1;
+
+    private final int[] combos; // combos to evaluate
+    private final int[] buckets; // bucket of each combo, by combo index
+    private final double[] weights; // villain weight of each combo, by combo index
+    private final int numBuckets;
+
+    private final long[] keys; // strength << COMBO_BITS | combo, of the combos on the board
+    private int numKeys;
+    private final double[] below; // weight of each bucket below the current strength
+    private final double[] belowPerCard; // same, per card: card * numBuckets + bucket
+    private final double[] group; // weight of each bucket at the current strength
+    private final double[] groupPerCard;
+
+    /**
+     * Constructor for ComboSweep.
+     *
+     * @param combos     Combos to evaluate on each board
+     * @param buckets    Bucket of each combo, by combo index
+     * @param weights    Villain weight of each combo, by combo index
+     * @param numBuckets Number of buckets
+     */
+    ComboSweep(int[] combos, int[] buckets, double[] weights, int numBuckets) {
+        this.combos = combos;
+        this.buckets = buckets;
+        this.weights = weights;
+        this.numBuckets = numBuckets;
+        this.keys = new long[combos.length];
+        this.below = new double[numBuckets];
+        this.belowPerCard = new double[52 * numBuckets];
+        this.group = new double[numBuckets];
+        this.groupPerCard = new double[52 * numBuckets];
+    }
+
+    /**
+     * Evaluates the combos that do not hold a card of the board, and sweeps them.
+     * The visitor is called with each combo once the combos of its strength are
+     * counted, when beaten() and tied() hold for it. After the sweep, dealt()
+     * holds for every combo evaluated.
+     *
+     * @param evaluator Evaluator holding the 5 cards of the board
+     * @param board     Bitmask of the board
+     * @param visitor   Called with each combo evaluated
+     */
+    void sweep(BoardEvaluator evaluator, long board, IntConsumer visitor) {
+        long[] keys = this.keys;
+        int numKeys = 0;
+        for (int combo : this.combos) {
+            int card1 = Range.getCard1(combo);
+            int card2 = Range.getCard2(combo);
+            if ((board & (1L << card1 | 1L << card2)) == 0) {
+                long strength = evaluator.evaluate(card1, card2);
+                keys[numKeys++] = strength << COMBO_BITS | combo;
+            }
+        }
+        Arrays.sort(keys, 0, numKeys);
+        this.numKeys = numKeys;
+        Arrays.fill(this.below, 0);
+        Arrays.fill(this.belowPerCard, 0);
+
+        for (int start = 0; start < numKeys;) {
+            long strength = keys[start] >>> COMBO_BITS;
+            int end = start;
+            for (; end < numKeys && keys[end] >>> COMBO_BITS == strength; end++) {
+                this.add(this.group, this.groupPerCard, (int) (keys[end] & COMBO_MASK));
+            }
+
+            for (int k = start; k < end; k++) {
+                visitor.accept((int) (keys[k] & COMBO_MASK));
+            }
+
+            for (int k = start; k < end; k++) {
+                int combo = (int) (keys[k] & COMBO_MASK);
+                this.add(this.below, this.belowPerCard, combo);
+                int bucket = this.buckets[combo];
+                this.group[bucket] = 0;
+                this.groupPerCard[Range.getCard1(combo) * this.numBuckets + bucket] = 0;
+                this.groupPerCard[Range.getCard2(combo) * this.numBuckets + bucket] = 0;
+            }
+            start = end;
+        }
+    }
+
+    private void add(double[] total, double[] perCard, int combo) {
+        int bucket = this.buckets[combo];
+        double weight = this.weights[combo];
+        total[bucket] += weight;
+        perCard[Range.getCard1(combo) * this.numBuckets + bucket] += weight;
+        perCard[Range.getCard2(combo) * this.numBuckets + bucket] += weight;
+    }
+
+    /**
+     * Returns the number of combos evaluated on the last board.
+     */
+    int size() {
+        return this.numKeys;
+    }
+
+    /**
+     * Returns a combo evaluated on the last board.
+     *
+     * @param k Index of the combo, 0 to size() - 1, weakest first
+     */
+    int combo(int k) {
+        return (int) (this.keys[k] & COMBO_MASK);
+    }
+
+    /**
+     * Returns the weight of a bucket that a combo beats, during its visit.
+     */
+    double beaten(int combo, int bucket) {
+        return this.excluding(this.below, this.belowPerCard, combo, bucket);
+    }
+
+    /**
+     * Returns the weight of a bucket that a combo ties with, during its visit.
+     */
+    double tied(int combo, int bucket) {
+        return this.excluding(this.group, this.groupPerCard, combo, bucket) + this.self(combo, bucket);
+    }
+
+    /**
+     * Returns the weight of a bucket that a combo faces, after the sweep.
+     */
+    double dealt(int combo, int bucket) {
+        return this.excluding(this.below, this.belowPerCard, combo, bucket) + this.self(combo, bucket);
+    }
+
+    /**
+     * Returns a weight of a bucket minus the part of it that holds a card of a
+     * combo. The combo itself is subtracted twice if it is counted.
+     */
+    private double excluding(double[] total, double[] perCard, int combo, int bucket) {
+        return total[bucket] - perCard[Range.getCard1(combo) * this.numBuckets + bucket]
+                - perCard[Range.getCard2(combo) * this.numBuckets + bucket];
+    }
+
+    private double self(int combo, int bucket) {
+        return this.buckets[combo] == bucket ? this.weights[combo] : 0;
+    }
+}
@@ -0,0 +1,190 @@
+package equity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import main.CardSet;
+import main.SuitIsomorphism;
+
+/**
+ * Bounded cache of equity results in front of an EquityCalculator. Queries are
+ * keyed by the canonical form of their hole cards and board (see
+ * SuitIsomorphism.canonicalize()) and their number of opponents, so a query
+ * hits the results of every query that only differs from it by a permutation
+ * of the suits. The least recently used result is evicted when the cache is
+ * full.
+ *
+ * The first query of a key computes its result on the calling thread while
+ * the other queries of the same key wait for it, so a result is only computed
+ * once. Queries with dead cards are not cached.
+ *
+ * An EquityCache is thread-safe.
+ */
+public class EquityCache {
+    private static final int OPPONENTS_SHIFT = 52; // the hole cards of a key use the lower 52 bits
+
+    private final EquityCalculator calculator;
+    private final int maxEntries;
+    private final LinkedHashMap<Key, CompletableFuture<EquityResult>> entries; // guarded by this, in access order
+
+    private long hits = 0; // guarded by this
+    private long misses = 0; // guarded by this
+    private long evictions = 0; // guarded by this
+
+    /**
+     * Constructor for EquityCache.
+     *
+     * @param calculator Calculator of the results that are not cached
+     * @param maxEntries Maximum number of results to keep
+     * @throws IllegalArgumentException If the maximum number of entries is not
+     *                                  positive
+     */
+    public EquityCache(EquityCalculator calculator, int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Invalid number of entries: " + maxEntries);
+
+        this.calculator = calculator;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<EquityResult>> eldest) {
+                if (size() > EquityCache.this.maxEntries) {
+                    EquityCache.this.evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the preflop equity of hole cards against random opponents, see
+     * EquityCalculator.calculate().
+     */
+    public EquityResult calculate(CardSet holeCards, int numOpponents) {
+        return this.calculate(holeCards, numOpponents, CardSet.EMPTY, CardSet.EMPTY);
+    }
+
+    /**
+     * Returns the equity of hole cards against random opponents, from the cache
+     * if an equivalent query was answered before, see
+     * EquityCalculator.calculate().
+     *
+     * @param holeCards    The 2 hole cards
+     * @param numOpponents Number of opponents
+     * @param board        Known community cards, 0 to 5
+     * @param dead         Cards that are out of the deck, queries with dead cards
+     *                     are not cached
+     * @return Equity of the hole cards
+     * @throws IllegalArgumentException If the cards overlap, or there are not
+     *                                  enough cards left to deal
+     */
+    public EquityResult calculate(CardSet holeCards, int numOpponents, CardSet board, CardSet dead) {
+        if (!dead.isEmpty() || numOpponents < 1 || numOpponents >= 1 << (Long.SIZE - 1 - OPPONENTS_SHIFT)) {
+            return this.calculator.calculate(holeCards, numOpponents, board, dead);
+        }
+
+        Key key = new Key(SuitIsomorphism.canonicalize(holeCards, board), numOpponents);
+        CompletableFuture<EquityResult> future;
+        boolean computes = false;
+        synchronized (this) {
+            future = this.entries.get(key);
+            if (future != null) {
+                this.hits++;
+            } else {
+                this.misses++;
+                future = new CompletableFuture<>();
+                this.entries.put(key, future);
+                computes = true;
+            }
+        }
+
+        if (computes) {
+            try {
+                future.complete(this.calculator.calculate(holeCards, numOpponents, board, dead));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    this.entries.remove(key, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Returns the number of queries that were answered from the cache, or
+     * waited for a query of the same key.
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of cached queries whose result was computed.
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of results that were evicted to make room.
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Returns the number of results in the cache, including the ones being
+     * computed.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Removes every result from the cache. The counters are kept.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("EquityCache{size=%d/%d, hits=%d, misses=%d, evictions=%d}", this.entries.size(),
+                this.maxEntries, this.hits, this.misses, this.evictions);
+    }
+
+    /**
+     * Canonical hole cards and number of opponents packed in a long, and
+     * canonical board.
+     */
+    private static final class Key {
+        private final long holeCards;
+        private final long board;
+
+        Key(SuitIsomorphism.Canonical canonical, int numOpponents) {
+            this.holeCards = canonical.getHoleCards().bits() | (long) numOpponents << OPPONENTS_SHIFT;
+            this.board = canonical.getBoard().bits();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).holeCards == this.holeCards
+                    && ((Key) other).board == this.board;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.holeCards * 31 + this.board);
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package equity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+import main.BoardEnumerator;
+import main.BoardEvaluator;
+import main.CardSet;
+import main.PartialShuffleDeck;
+import main.RandomStreams;
+import main.SuitIsomorphism;
+
+/**
+ * Computes the equity of a pair of hole cards against a number of opponents
+ * with random hole cards, given the known community cards and dead cards.
+ *
+ * If the number of possible deals (board completions times opponent hands) is
+ * at most the exact threshold, every deal is enumerated and the result is
+ * exact. Otherwise a fixed number of random deals is sampled. Either way the
+ * work is split into tasks that run on a ForkJoinPool: the board completions
+ * are split into ranges of BoardEnumerator indices, and the samples are split
+ * into equal parts, each drawn with its own split of the calculator's random
+ * generator.
+ *
+ * Anytime queries (see calculateWithin()) always sample: a worker per thread
+ * of the pool deals random hands until a deadline or a target standard error.
+ * The workers of concurrent queries take turns on the threads, a batch of
+ * hands at a time (see AnytimeScheduler).
+ *
+ * Ranges are compared the same way, except that the tasks evaluate whole
+ * boards (see RangeDeal): the boards are enumerated if the number of boards
+ * times the number of combos in play is at most the exact threshold, and
+ * numSamples / BOARD_SAMPLE_COST random boards are evaluated otherwise.
+ *
+ * The enumerations only evaluate the boards that are canonical under the suit
+ * permutations that leave the known cards unchanged (see SuitIsomorphism), and
+ * weigh each of them by the number of boards that it stands for.
+ *
+ * An EquityCalculator is thread-safe.
+ */
+public class EquityCalculator {
+    public static final long DEFAULT_EXACT_THRESHOLD = 2000000; // deals
+    public static final int DEFAULT_NUM_SAMPLES = 200000;
+    static final int TASKS_PER_THREAD = 4;
+    static final int BOARD_SAMPLE_COST = 20; // samples a random board of a range calculation counts for
+
+    private final ForkJoinPool pool;
+    private final AnytimeScheduler scheduler;
+    private final long exactThreshold;
+    private final int numSamples;
+    private final RandomStreams streams;
+
+    /**
+     * Constructor for an EquityCalculator that runs on the common pool with the
+     * default threshold and number of samples.
+     */
+    public EquityCalculator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_EXACT_THRESHOLD, DEFAULT_NUM_SAMPLES, System.nanoTime());
+    }
+
+    /**
+     * Constructor for EquityCalculator.
+     *
+     * @param pool           Pool that runs the tasks
+     * @param exactThreshold Maximum number of deals to enumerate, 0 to always
+     *                       sample
+     * @param numSamples     Number of deals to sample when the deals are not
+     *                       enumerated
+     * @param seed           Seed of the random generator of the samples
+     */
+    public EquityCalculator(ForkJoinPool pool, long exactThreshold, int numSamples, long seed) {
+        if (numSamples < 1)
+            throw new IllegalArgumentException("Invalid number of samples: " + numSamples);
+
+        this.pool = pool;
+        this.scheduler = new AnytimeScheduler(pool);
+        this.exactThreshold = exactThreshold;
+        this.numSamples = numSamples;
+        this.streams = new RandomStreams(seed);
+    }
+
+    /**
+     * Computes the preflop equity of hole cards against random opponents.
+     *
+     * @param holeCards    The 2 hole cards
+     * @param numOpponents Number of opponents
+     * @return Equity of the hole cards
+     */
+    public EquityResult calculate(CardSet holeCards, int numOpponents) {
+        return this.calculate(holeCards, numOpponents, CardSet.EMPTY, CardSet.EMPTY);
+    }
+
+    /**
+     * Computes the equity of hole cards against random opponents.
+     *
+     * @param holeCards    The 2 hole cards
+     * @param numOpponents Number of opponents
+     * @param board        Known community cards, 0 to 5
+     * @param dead         Cards that are out of the deck (folded or seen cards)
+     * @return Equity of the hole cards
+     * @throws IllegalArgumentException If the cards overlap, or there are not
+     *                                  enough cards left to deal
+     */
+    public EquityResult calculate(CardSet holeCards, int numOpponents, CardSet board, CardSet dead) {
+        Deal deal = new Deal(holeCards, numOpponents, board, dead);
+
+        ArrayList<Callable<Tally>> tasks = new ArrayList<>();
+        int numTasks = this.pool.getParallelism() * TASKS_PER_THREAD;
+        boolean exact = deal.countDeals() <= this.exactThreshold;
+        if (exact) {
+            long numBoards = deal.countBoards();
+            numTasks = (int) Math.min(numTasks, numBoards);
+            for (int i = 0; i < numTasks; i++) {
+                long from = numBoards * i / numTasks;
+                long to = numBoards * (i + 1) / numTasks;
+                tasks.add(() -> deal.enumerate(from, to));
+            }
+        } else {
+            // the generators are split here, in task order, so a seed always gives
+            // the same result
+            SplittableGenerator random = this.streams.split();
+            for (int i = 0; i < numTasks; i++) {
+                int samples = (int) ((long) this.numSamples * (i + 1) / numTasks
+                        - (long) this.numSamples * i / numTasks);
+                SplittableGenerator taskRandom = random.split();
+                tasks.add(() -> deal.sample(samples, taskRandom));
+            }
+        }
+
+        Tally tally = new Tally();
+        for (Tally taskTally : this.run(tasks)) {
+            tally.merge(taskTally);
+        }
+        return tally.toResult(exact);
+    }
+
+    /**
+     * Starts an anytime equity query: random hands are dealt on every thread of
+     * the pool, in turns with the other anytime queries, until the standard
+     * error of the equity reaches the target or the time budget runs out, and
+     * the future then completes with the estimate, its standard error and the
+     * number of hands. Cancelling the future stops the query.
+     *
+     * @param holeCards     The 2 hole cards
+     * @param numOpponents  Number of opponents
+     * @param board         Known community cards, 0 to 5
+     * @param dead          Cards that are out of the deck (folded or seen cards)
+     * @param budget        Time before the query completes, whatever its error
+     * @param standardError Standard error at which the query completes early, 0
+     *                      to use the whole budget
+     * @return Future of the sampled equity, never exact
+     * @throws IllegalArgumentException If the cards overlap, there are not enough
+     *                                  cards left to deal, or the budget or the
+     *                                  standard error is invalid
+     */
+    public CompletableFuture<EquityResult> calculateAnytime(CardSet holeCards, int numOpponents, CardSet board,
+            CardSet dead, Duration budget, double standardError) {
+        AnytimeQuery query = new AnytimeQuery(holeCards, numOpponents, board, dead, budget.toNanos(),
+                standardError);
+        query.start(this.scheduler, this.pool.getParallelism(), this.streams.split());
+        return query.future;
+    }
+
+    /**
+     * Runs an anytime equity query and waits for its result, see
+     * calculateAnytime().
+     *
+     * @return Sampled equity, never exact
+     */
+    public EquityResult calculateWithin(CardSet holeCards, int numOpponents, CardSet board, CardSet dead,
+            Duration budget, double standardError) {
+        CompletableFuture<EquityResult> future = this.calculateAnytime(holeCards, numOpponents, board, dead, budget,
+                standardError);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating equity", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Equity calculation failed", e.getCause());
+        }
+    }
+
+    /**
+     * Computes the equity of a range against another range, heads-up.
+     *
+     * @param hero    Range of the hero
+     * @param villain Range of the villain
+     * @param board   Known community cards, 0 to 5
+     * @param dead    Cards that are out of the deck (folded or seen cards)
+     * @return Equity of the hero's range, and of each of its combos
+     * @throws IllegalArgumentException If the board and the dead cards overlap
+     */
+    public RangeEquityResult calculate(Range hero, Range villain, CardSet board, CardSet dead) {
+        hero = new Range(hero); // the result keeps the weights of the hero's range
+        RangeDeal deal = new RangeDeal(hero, new Range(villain), board, dead);
+
+        ArrayList<Callable<RangeDeal.RangeTally>> tasks = new ArrayList<>();
+        int numTasks = this.pool.getParallelism() * TASKS_PER_THREAD;
+        long numBoards = deal.countBoards();
+        boolean exact = numBoards * deal.combos.length <= this.exactThreshold;
+        if (exact) {
+            numTasks = (int) Math.min(numTasks, numBoards);
+            for (int i = 0; i < numTasks; i++) {
+                long from = numBoards * i / numTasks;
+                long to = numBoards * (i + 1) / numTasks;
+                tasks.add(() -> deal.enumerate(from, to));
+            }
+        } else {
+            int numSampledBoards = Math.max(numTasks, this.numSamples / BOARD_SAMPLE_COST);
+            SplittableGenerator random = this.streams.split();
+            for (int i = 0; i < numTasks; i++) {
+                int boards = (int) ((long) numSampledBoards * (i + 1) / numTasks
+                        - (long) numSampledBoards * i / numTasks);
+                SplittableGenerator taskRandom = random.split();
+                tasks.add(() -> deal.sample(boards, taskRandom));
+            }
+        }
+
+        RangeDeal.RangeTally tally = new RangeDeal.RangeTally();
+        for (RangeDeal.RangeTally taskTally : this.run(tasks)) {
+            tally.merge(taskTally);
+        }
+        if (exact) {
+            tally = deal.symmetrize(tally);
+        }
+        return new RangeEquityResult(hero, tally.wins, tally.ties, tally.deals, exact);
+    }
+
+    /**
+     * Runs the tasks on the pool.
+     *
+     * @return Results of the tasks, in task order
+     */
+    <T> ArrayList<T> run(ArrayList<Callable<T>> tasks) {
+        ArrayList<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(this.pool.submit(task));
+        }
+
+        ArrayList<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating equity", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Equity calculation failed", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * The known cards of an equity calculation, and the enumeration and sampling
+     * of the unknown ones.
+     */
+    static class Deal {
+        final int holeCard1;
+        final int holeCard2;
+        final int numOpponents;
+        final int[] board; // ids of the known community cards
+        final CardSet dead; // every card that cannot be dealt
+        final int numMissing; // number of community cards still to deal
+        final SuitIsomorphism symmetries; // suit permutations that leave the known cards unchanged
+
+        Deal(CardSet holeCards, int numOpponents, CardSet board, CardSet dead) {
+            if (holeCards.size() != 2)
+                throw new IllegalArgumentException("Expected 2 hole cards: " + holeCards);
+            if (board.size() > 5)
+                throw new IllegalArgumentException("The board has at most 5 cards: " + board);
+            if (holeCards.intersects(board) || holeCards.intersects(dead) || board.intersects(dead))
+                throw new IllegalArgumentException("Hole cards, board and dead cards overlap");
+            if (numOpponents < 1)
+                throw new IllegalArgumentException("Invalid number of opponents: " + numOpponents);
+
+            this.holeCard1 = holeCards.first();
+            this.holeCard2 = holeCards.next(this.holeCard1);
+            this.numOpponents = numOpponents;
+            this.board = new int[board.size()];
+            int i = 0;
+            for (int id = board.first(); id >= 0; id = board.next(id)) {
+                this.board[i++] = id;
+            }
+            this.dead = holeCards.union(board).union(dead);
+            this.numMissing = 5 - board.size();
+            this.symmetries = new SuitIsomorphism(holeCards, board, dead);
+
+            if (this.numMissing + 2 * numOpponents > 52 - this.dead.size())
+                throw new IllegalArgumentException("Not enough cards left for " + numOpponents + " opponents");
+        }
+
+        long countBoards() {
+            return BoardEnumerator.count(52 - this.dead.size(), this.numMissing);
+        }
+
+        /**
+         * Returns the number of deals to enumerate: the board completions times
+         * the unordered sets of opponent hands.
+         */
+        double countDeals() {
+            double deals = this.countBoards();
+            int cardsLeft = 52 - this.dead.size() - this.numMissing;
+            for (int i = 0; i < this.numOpponents; i++) {
+                deals *= BoardEnumerator.count(cardsLeft - 2 * i, 2) / (double) (i + 1);
+            }
+            return deals;
+        }
+
+        /**
+         * Enumerates the board completions with an index in [from, to), and every
+         * set of opponent hands for each of them. Only the canonical completions
+         * are evaluated, each weighted by the size of its orbit.
+         */
+        Tally enumerate(long from, long to) {
+            BoardEnumerator boards = new BoardEnumerator(this.dead, this.numMissing, from, to);
+            BoardEvaluator evaluator = new BoardEvaluator();
+            int[] boardIds = new int[5];
+            System.arraycopy(this.board, 0, boardIds, 0, this.board.length);
+
+            int[] liveCards = new int[52];
+            int maxCombos = 52 * 51 / 2;
+            long[] comboMasks = new long[maxCombos];
+            int[] comboStrengths = new int[maxCombos];
+            Tally tally = new Tally();
+            Tally boardTally = new Tally();
+
+            while (boards.next()) {
+                int multiplicity = this.symmetries.multiplicity(boards.getBoard());
+                if (multiplicity == 0) {
+                    continue;
+                }
+                boards.getBoard(boardIds, this.board.length);
+                evaluator.setBoard(boardIds, 0, 5);
+                int strength = evaluator.evaluate(this.holeCard1, this.holeCard2);
+
+                // every opponent hand is evaluated once per board
+                CardSet live = CardSet.FULL_DECK.removeAll(this.dead).removeAll(CardSet.of(boards.getBoard()));
+                int numLive = 0;
+                for (int id = live.first(); id >= 0; id = live.next(id)) {
+                    liveCards[numLive++] = id;
+                }
+                int numCombos = 0;
+                for (int i = 0; i < numLive; i++) {
+                    for (int j = i + 1; j < numLive; j++) {
+                        comboMasks[numCombos] = 1L << liveCards[i] | 1L << liveCards[j];
+                        comboStrengths[numCombos++] = evaluator.evaluate(liveCards[i], liveCards[j]);
+                    }
+                }
+
+                boardTally.clear();
+                if (this.numOpponents == 1) {
+                    for (int c = 0; c < numCombos; c++) {
+                        boardTally.add(strength, comboStrengths[c], 1);
+                    }
+                } else {
+                    enumerateOpponents(boardTally, strength, comboMasks, comboStrengths, numCombos,
+                            this.numOpponents, 0, 0L, -1, 0);
+                }
+                tally.merge(boardTally, multiplicity);
+            }
+            return tally;
+        }
+
+        /**
+         * Enumerates the sets of disjoint opponent hands, as increasing sequences of
+         * combo indices.
+         */
+        private static void enumerateOpponents(Tally tally, int strength, long[] comboMasks, int[] comboStrengths,
+                int numCombos, int opponentsLeft, int firstCombo, long used, int best, int numBest) {
+            for (int c = firstCombo; c < numCombos; c++) {
+                if ((comboMasks[c] & used) != 0) {
+                    continue;
+                }
+                int newBest = Math.max(best, comboStrengths[c]);
+                int newNumBest = comboStrengths[c] > best ? 1 : comboStrengths[c] == best ? numBest + 1 : numBest;
+                if (opponentsLeft == 1) {
+                    tally.add(strength, newBest, newNumBest);
+                } else {
+                    enumerateOpponents(tally, strength, comboMasks, comboStrengths, numCombos, opponentsLeft - 1,
+                            c + 1, used | comboMasks[c], newBest, newNumBest);
+                }
+            }
+        }
+
+        /**
+         * Samples random deals of the board completion and the opponent hands.
+         */
+        Tally sample(int numSamples, SplittableGenerator random) {
+            PartialShuffleDeck deck = new PartialShuffleDeck(random);
+            deck.setDeadCards(this.dead);
+            BoardEvaluator evaluator = new BoardEvaluator();
+            int[] boardIds = new int[5];
+            System.arraycopy(this.board, 0, boardIds, 0, this.board.length);
+            int[] opponentCards = new int[2 * this.numOpponents];
+            Tally tally = new Tally();
+
+            for (int s = 0; s < numSamples; s++) {
+                deck.reset();
+                deck.draw(boardIds, this.board.length, this.numMissing);
+                deck.draw(opponentCards, 0, opponentCards.length);
+
+                evaluator.setBoard(boardIds, 0, 5);
+                int strength = evaluator.evaluate(this.holeCard1, this.holeCard2);
+                int best = -1;
+                int numBest = 0;
+                for (int i = 0; i < opponentCards.length; i += 2) {
+                    int opponent = evaluator.evaluate(opponentCards[i], opponentCards[i + 1]);
+                    if (opponent > best) {
+                        best = opponent;
+                        numBest = 1;
+                    } else if (opponent == best) {
+                        numBest++;
+                    }
+                }
+                tally.add(strength, best, numBest);
+            }
+            return tally;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package equity;
+
+/**
+ * Result of an equity calculation: how often the hand wins, ties and loses
+ * against the opponents, and its equity, i.e. its expected share of the pot
+ * (a tie with k other players is worth 1 / (k + 1) of the pot).
+ *
+ * The result either comes from an exact enumeration of every deal, or from a
+ * random sample of deals, in which case getStandardError() estimates the error
+ * of the equity.
+ */
+public class EquityResult {
+    private final long wins;
+    private final long ties;
+    private final long losses;
+    private final double potShares; // sum of the pot shares won in every deal
+    private final double squaredPotShares; // sum of the squared pot shares, for the variance
+    private final boolean exact;
+
+    EquityResult(long wins, long ties, long losses, double potShares, double squaredPotShares, boolean exact) {
+        this.wins = wins;
+        this.ties = ties;
+        this.losses = losses;
+        this.potShares = potShares;
+        this.squaredPotShares = squaredPotShares;
+        this.exact = exact;
+    }
+
+    /**
+     * Returns the number of deals that were enumerated or sampled.
+     */
+    public long getNumDeals() {
+        return this.wins + this.ties + this.losses;
+    }
+
+    public long getWins() {
+        return this.wins;
+    }
+
+    public long getTies() {
+        return this.ties;
+    }
+
+    public long getLosses() {
+        return this.losses;
+    }
+
+    public double getWinProbability() {
+        return (double) this.wins / this.getNumDeals();
+    }
+
+    public double getTieProbability() {
+        return (double) this.ties / this.getNumDeals();
+    }
+
+    public double getLossProbability() {
+        return (double) this.losses / this.getNumDeals();
+    }
+
+    /**
+     * Returns the expected share of the pot won by the hand.
+     *
+     * @return Equity, between 0 and 1
+     */
+    public double getEquity() {
+        return this.potShares / this.getNumDeals();
+    }
+
+    /**
+     * Returns the standard error of the equity: 0 for an exact result, the
+     * standard deviation of the pot share divided by the square root of the
+     * number of deals for a sampled result.
+     *
+     * @return Standard error of getEquity()
+     */
+    public double getStandardError() {
+        if (this.exact) {
+            return 0;
+        }
+        long n = this.getNumDeals();
+        double mean = this.potShares / n;
+        double variance = Math.max(0, this.squaredPotShares / n - mean * mean);
+        return Math.sqrt(variance / n);
+    }
+
+    /**
+     * Returns whether the result comes from an exact enumeration of every deal.
+     */
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("equity %.4f (win %.4f, tie %.4f, loss %.4f) over %d deals%s",
+                this.getEquity(), this.getWinProbability(), this.getTieProbability(), this.getLossProbability(),
+                this.getNumDeals(), this.exact ? ", exact" : String.format(", +- %.4f", this.getStandardError()));
+    }
+}
@@ -0,0 +1,189 @@
+package equity;
+
+import java.util.Arrays;
+
+import main.BitmaskEvaluator;
+import main.BoardEvaluator;
+import main.CardSet;
+import main.HandRank;
+import main.HandStrength;
+
+/**
+ * Lists the outs of a hand on the flop or the turn and computes its exact odds
+ * to the river, against known opponent hands or, without opponents, to improve
+ * beyond the board (see OutsResult).
+ *
+ * Every next card is evaluated, and every runout to the river is enumerated: at
+ * most 47 * 46 / 2 = 1081 runouts on the flop. Hands are scored with a
+ * BoardEvaluator, which adds the hole cards of each player to the board
+ * without allocating, so a calculation takes a few hundred microseconds at
+ * most.
+ *
+ * An OutsCalculator reuses its buffers, so it is not thread-safe.
+ */
+public class OutsCalculator {
+    private static final long RANK_BITS = 1L | 1L << 13 | 1L << 26 | 1L << 39; // the 4 cards of the lowest rank
+
+    private final BoardEvaluator evaluator = new BoardEvaluator();
+    private final int[] boardIds = new int[5];
+    private int[] opponentIds = new int[0]; // hole cards of the opponents, 2 per opponent
+    private HandRank handRank; // rank of the hero on the current board, compared against without opponents
+
+    /**
+     * Computes the outs and the odds of hole cards.
+     *
+     * @param holeCards The 2 hole cards of the hero
+     * @param board     The 3 or 4 community cards
+     * @param opponents The 2 hole cards of each known opponent, if any
+     * @return Outs and odds of the hero
+     * @throws IllegalArgumentException If a player does not have 2 hole cards,
+     *                                  the board does not have 3 or 4 cards, or
+     *                                  the cards overlap
+     */
+    public OutsResult calculate(CardSet holeCards, CardSet board, CardSet... opponents) {
+        if (holeCards.size() != 2)
+            throw new IllegalArgumentException("Expected 2 hole cards: " + holeCards);
+        if (board.size() != 3 && board.size() != 4)
+            throw new IllegalArgumentException("Outs are computed on the flop or the turn: " + board);
+        if (holeCards.intersects(board))
+            throw new IllegalArgumentException("Hole cards and board overlap");
+
+        CardSet dead = holeCards.union(board);
+        if (this.opponentIds.length != 2 * opponents.length) {
+            this.opponentIds = new int[2 * opponents.length];
+        }
+        for (int i = 0; i < opponents.length; i++) {
+            if (opponents[i].size() != 2)
+                throw new IllegalArgumentException("Expected 2 hole cards: " + opponents[i]);
+            if (opponents[i].intersects(dead))
+                throw new IllegalArgumentException("Opponent cards overlap: " + opponents[i]);
+
+            this.opponentIds[2 * i] = opponents[i].first();
+            this.opponentIds[2 * i + 1] = opponents[i].next(opponents[i].first());
+            dead = dead.union(opponents[i]);
+        }
+
+        int holeCard1 = holeCards.first();
+        int holeCard2 = holeCards.next(holeCard1);
+        int numBoardCards = 0;
+        for (int id = board.first(); id >= 0; id = board.next(id)) {
+            this.boardIds[numBoardCards++] = id;
+        }
+        this.evaluator.setBoard(this.boardIds, 0, numBoardCards);
+        int currentStrength = this.evaluator.evaluate(holeCard1, holeCard2);
+        this.handRank = HandStrength.getHandRank(currentStrength);
+        int currentWinners = this.showdown(currentStrength, board.bits()); // always 0 without opponents
+
+        int[] nextStrengths = new int[52];
+        Arrays.fill(nextStrengths, -1);
+        long outs = 0;
+        long tieOuts = 0;
+        int numNextCards = 0;
+        long[] riverRanks = new long[HandRank.values().length];
+        long riverWins = 0;
+        long riverTies = 0;
+        double riverPotShares = 0;
+        long numRunouts = 0;
+
+        for (int next = 0; next < 52; next++) {
+            if (dead.contains(next)) {
+                continue;
+            }
+            numNextCards++;
+            this.boardIds[numBoardCards] = next;
+            this.evaluator.setBoard(this.boardIds, 0, numBoardCards + 1);
+            int strength = this.evaluator.evaluate(holeCard1, holeCard2);
+            int numWinners = this.showdown(strength, board.bits() | 1L << next);
+            nextStrengths[next] = strength;
+            // only the cards that put the hero ahead, or level from behind
+            if (numWinners == 1 && currentWinners != 1) {
+                outs |= 1L << next;
+            } else if (numWinners > 1 && currentWinners == 0) {
+                tieOuts |= 1L << next;
+            }
+
+            if (numBoardCards == 4) {
+                riverRanks[HandStrength.getHandRank(strength).ordinal()]++;
+                riverWins += numWinners == 1 ? 1 : 0;
+                riverTies += numWinners > 1 ? 1 : 0;
+                riverPotShares += numWinners > 0 ? 1.0 / numWinners : 0;
+                numRunouts++;
+                continue;
+            }
+
+            // each unordered (turn, river) pair once
+            for (int river = next + 1; river < 52; river++) {
+                if (dead.contains(river)) {
+                    continue;
+                }
+                this.boardIds[4] = river;
+                this.evaluator.setBoard(this.boardIds, 0, 5);
+                int riverStrength = this.evaluator.evaluate(holeCard1, holeCard2);
+                int riverWinners = this.showdown(riverStrength, board.bits() | 1L << next | 1L << river);
+                riverRanks[HandStrength.getHandRank(riverStrength).ordinal()]++;
+                riverWins += riverWinners == 1 ? 1 : 0;
+                riverTies += riverWinners > 1 ? 1 : 0;
+                riverPotShares += riverWinners > 0 ? 1.0 / riverWinners : 0;
+                numRunouts++;
+            }
+        }
+
+        return new OutsResult(this.handRank, nextStrengths, CardSet.of(outs), CardSet.of(tieOuts), numNextCards,
+                riverRanks, riverWins, riverTies, riverPotShares, numRunouts);
+    }
+
+    /**
+     * Compares the hero against the opponents on the board set in the evaluator.
+     * Without opponents, the hero wins if its hand rank is above both its
+     * current hand rank and the hand rank of the board alone, so that a card
+     * that only pairs the board does not count.
+     *
+     * @param strength Strength of the hero on the board
+     * @param board    Bitmask of the board set in the evaluator
+     * @return Number of players with the best hand if the hero is one of them
+     *         (1 if the hero improves beyond the board without opponents), 0
+     *         otherwise
+     */
+    private int showdown(int strength, long board) {
+        if (this.opponentIds.length == 0) {
+            HandRank rank = HandStrength.getHandRank(strength);
+            return rank.compareTo(this.handRank) > 0 && rank.compareTo(boardRank(board)) > 0 ? 1 : 0;
+        }
+
+        int numWinners = 1;
+        for (int i = 0; i < this.opponentIds.length; i += 2) {
+            int opponent = this.evaluator.evaluate(this.opponentIds[i], this.opponentIds[i + 1]);
+            if (opponent > strength) {
+                return 0;
+            }
+            if (opponent == strength) {
+                numWinners++;
+            }
+        }
+        return numWinners;
+    }
+
+    /**
+     * Returns the hand rank of the board alone, 3 to 5 cards.
+     */
+    private static HandRank boardRank(long board) {
+        if (Long.bitCount(board) == 5) {
+            return HandStrength.getHandRank(BitmaskEvaluator.evaluate(board));
+        }
+
+        // fewer than 5 cards make no straight, flush or full house
+        int maxCount = 0;
+        int numPairs = 0;
+        for (int rank = 0; rank < 13; rank++) {
+            int count = Long.bitCount(board & RANK_BITS << rank);
+            maxCount = Math.max(maxCount, count);
+            numPairs += count == 2 ? 1 : 0;
+        }
+        if (maxCount == 4) {
+            return HandRank.FOUR_OF_A_KIND;
+        } else if (maxCount == 3) {
+            return HandRank.THREE_OF_A_KIND;
+        }
+        return numPairs == 2 ? HandRank.TWO_PAIR : numPairs == 1 ? HandRank.PAIR : HandRank.HIGH_CARD;
+    }
+}
@@ -0,0 +1,174 @@
+package equity;
+
+import java.util.ArrayList;
+
+import main.Card;
+import main.CardSet;
+import main.HandRank;
+import main.HandStrength;
+
+/**
+ * Result of an outs calculation on the flop or the turn.
+ *
+ * With known opponents, a card is an out if it puts the hero ahead: the hero
+ * does not have the best hand alone on the current board, and has it after the
+ * card (getOuts()). A tie out levels a hero who is behind (getTieOuts()). A
+ * hero who is already ahead has no outs, getEquity() then tells how likely the
+ * lead holds.
+ *
+ * Without opponents, the board alone is the baseline: a card is an out if it
+ * raises the hand rank of the hero above both its current hand rank and the
+ * hand rank of the board, so a card that only pairs the board, which improves
+ * every player the same way, is not an out.
+ *
+ * The river odds are exact: every runout to the river is enumerated.
+ */
+public class OutsResult {
+    private final HandRank handRank; // rank of the hero's hand on the current board
+    private final int[] nextStrengths; // strength of the hero after each next card, -1 if not dealt
+    private final CardSet outs;
+    private final CardSet tieOuts;
+    private final int numNextCards;
+    private final long[] riverRanks; // runouts that end with each HandRank of the hero
+    private final long riverWins;
+    private final long riverTies;
+    private final double riverPotShares;
+    private final long numRunouts;
+
+    OutsResult(HandRank handRank, int[] nextStrengths, CardSet outs, CardSet tieOuts, int numNextCards,
+            long[] riverRanks, long riverWins, long riverTies, double riverPotShares, long numRunouts) {
+        this.handRank = handRank;
+        this.nextStrengths = nextStrengths;
+        this.outs = outs;
+        this.tieOuts = tieOuts;
+        this.numNextCards = numNextCards;
+        this.riverRanks = riverRanks;
+        this.riverWins = riverWins;
+        this.riverTies = riverTies;
+        this.riverPotShares = riverPotShares;
+        this.numRunouts = numRunouts;
+    }
+
+    /**
+     * Returns the hand rank of the hero on the current board.
+     */
+    public HandRank getHandRank() {
+        return this.handRank;
+    }
+
+    /**
+     * Returns the hand rank of the hero after a next card.
+     *
+     * @param card Next card
+     * @return Hand rank after the card, or null if the card cannot be dealt
+     */
+    public HandRank getHandRank(Card card) {
+        int strength = this.nextStrengths[card.id()];
+        return strength < 0 ? null : HandStrength.getHandRank(strength);
+    }
+
+    /**
+     * Returns the next cards that are outs: after which the hero wins alone
+     * while it did not before, or improves beyond the board if there are no
+     * opponents.
+     */
+    public CardSet getOuts() {
+        return this.outs;
+    }
+
+    /**
+     * Returns the outs that give the hero a given hand rank, e.g. the flush outs.
+     *
+     * @param handRank Hand rank after the out
+     * @return Outs that make the hand rank
+     */
+    public CardSet getOuts(HandRank handRank) {
+        long outs = 0;
+        for (int id = this.outs.first(); id >= 0; id = this.outs.next(id)) {
+            if (HandStrength.getHandRank(this.nextStrengths[id]) == handRank) {
+                outs |= 1L << id;
+            }
+        }
+        return CardSet.of(outs);
+    }
+
+    /**
+     * Returns the next cards after which a hero who is behind ties for the best
+     * hand, empty if there are no opponents.
+     */
+    public CardSet getTieOuts() {
+        return this.tieOuts;
+    }
+
+    /**
+     * Returns the number of cards that can be dealt next.
+     */
+    public int getNumNextCards() {
+        return this.numNextCards;
+    }
+
+    /**
+     * Returns the probability that the next card is an out.
+     */
+    public double getNextCardProbability() {
+        return (double) this.outs.size() / this.numNextCards;
+    }
+
+    /**
+     * Returns the probability that the hero wins alone at the river, or that the
+     * hero's hand rank improves beyond the board by the river if there are no
+     * opponents.
+     */
+    public double getWinProbability() {
+        return (double) this.riverWins / this.numRunouts;
+    }
+
+    /**
+     * Returns the probability that the hero ties for the best hand at the river,
+     * 0 if there are no opponents.
+     */
+    public double getTieProbability() {
+        return (double) this.riverTies / this.numRunouts;
+    }
+
+    /**
+     * Returns the expected share of the pot of the hero at the river, a tie with
+     * k opponents being worth 1 / (k + 1) of the pot. Without opponents, this is
+     * the probability to improve beyond the board.
+     */
+    public double getEquity() {
+        return this.riverPotShares / this.numRunouts;
+    }
+
+    /**
+     * Returns the probability that the hero ends with a given hand rank at the
+     * river.
+     *
+     * @param handRank Hand rank at the river
+     * @return Probability of the hand rank
+     */
+    public double getRankProbability(HandRank handRank) {
+        return (double) this.riverRanks[handRank.ordinal()] / this.numRunouts;
+    }
+
+    /**
+     * Returns the number of runouts to the river that were enumerated.
+     */
+    public long getNumRunouts() {
+        return this.numRunouts;
+    }
+
+    @Override
+    public String toString() {
+        ArrayList<String> ranks = new ArrayList<>();
+        for (HandRank rank : HandRank.values()) {
+            CardSet outs = this.getOuts(rank);
+            if (!outs.isEmpty()) {
+                ranks.add(rank + " " + outs);
+            }
+        }
+        return String.format("%d outs of %d (%.1f%%) %s, river: win %.4f, tie %.4f, equity %.4f", this.outs.size(),
+                this.numNextCards, 100 * this.getNextCardProbability(), ranks, this.getWinProbability(),
+                this.getTieProbability(), this.getEquity());
+    }
+}
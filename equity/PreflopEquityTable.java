@@ -0,0 +1,335 @@
+package equity;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import main.BoardEnumerator;
+import main.BoardEvaluator;
+import main.Card;
+import main.CardSet;
+import main.Rank;
+import main.SuitIsomorphism;
+
+/**
+ * Heads-up preflop all-in equities of every pair of hole-card classes (AA,
+ * AKs, AKo, ...), the same classes that StatsLogger keys on. The equity of a
+ * class against another one is averaged over every pair of their combos that
+ * do not share a card, and over every board.
+ *
+ * The table is computed once by enumerating the boards (see generate()),
+ * persisted as a compact file of floats and then memory-mapped, so a lookup
+ * is a single read.
+ *
+ * Class index: with h the higher rank ordinal and l the lower one, a pair is
+ * h * 13 + h, a suited class h * 13 + l and an offsuit class l * 13 + h, which
+ * is the usual 13 x 13 grid.
+ */
+public class PreflopEquityTable {
+    public static final int NUM_CLASSES = 169;
+    static final int MAGIC = 0x504B4551; // "PKEQ"
+    static final int VERSION = 1;
+    static final int HEADER_INTS = 3; // magic, version, number of classes
+
+    private static final int NUM_RANKS = Rank.values().length;
+
+    // win probability then tie probability of class a against class b, at
+    // index 2 * (a * NUM_CLASSES + b)
+    private final FloatBuffer table;
+
+    private PreflopEquityTable(FloatBuffer table) {
+        this.table = table;
+    }
+
+    /**
+     * Returns the class index of a pair of hole cards.
+     *
+     * @param card1 A hole card
+     * @param card2 The other hole card
+     * @return Index of the class, 0 to NUM_CLASSES - 1
+     */
+    public static int classIndex(Card card1, Card card2) {
+        return classIndex(card1.id(), card2.id());
+    }
+
+    /**
+     * Returns the class index of a class of hole cards.
+     *
+     * @param rank1  Rank of a card
+     * @param rank2  Rank of the other card
+     * @param suited Whether the cards are suited, ignored for pairs
+     * @return Index of the class, 0 to NUM_CLASSES - 1
+     */
+    public static int classIndex(Rank rank1, Rank rank2, boolean suited) {
+        int high = Math.max(rank1.ordinal(), rank2.ordinal());
+        int low = Math.min(rank1.ordinal(), rank2.ordinal());
+        return suited || high == low ? high * NUM_RANKS + low : low * NUM_RANKS + high;
+    }
+
+    static int classIndex(int id1, int id2) {
+        int rank1 = id1 % NUM_RANKS;
+        int rank2 = id2 % NUM_RANKS;
+        int high = Math.max(rank1, rank2);
+        int low = Math.min(rank1, rank2);
+        boolean suited = id1 / NUM_RANKS == id2 / NUM_RANKS;
+        return suited || high == low ? high * NUM_RANKS + low : low * NUM_RANKS + high;
+    }
+
+    /**
+     * Returns the name of a class, e.g. "AKs", "AKo" or "AA".
+     *
+     * @param classIndex Index of the class
+     * @return Name of the class
+     */
+    public static String className(int classIndex) {
+        Rank[] ranks = Rank.values();
+        int row = classIndex / NUM_RANKS;
+        int column = classIndex % NUM_RANKS;
+        if (row == column) {
+            return ranks[row].toString() + ranks[row];
+        }
+        Rank high = ranks[Math.max(row, column)];
+        Rank low = ranks[Math.min(row, column)];
+        return high.toString() + low + (row > column ? "s" : "o");
+    }
+
+    /**
+     * Returns the equity of a class against another class: its win probability
+     * plus half its tie probability.
+     *
+     * @param hero    Index of the hero's class
+     * @param villain Index of the villain's class
+     * @return Equity of the hero's class
+     */
+    public double getEquity(int hero, int villain) {
+        return this.getWinProbability(hero, villain) + this.getTieProbability(hero, villain) / 2;
+    }
+
+    /**
+     * Returns the equity of a pair of hole cards against another pair, averaged
+     * over the combos of their classes.
+     *
+     * @return Equity of the hero's class
+     */
+    public double getEquity(Card hero1, Card hero2, Card villain1, Card villain2) {
+        return this.getEquity(classIndex(hero1, hero2), classIndex(villain1, villain2));
+    }
+
+    public double getWinProbability(int hero, int villain) {
+        return this.table.get(2 * (hero * NUM_CLASSES + villain));
+    }
+
+    public double getTieProbability(int hero, int villain) {
+        return this.table.get(2 * (hero * NUM_CLASSES + villain) + 1);
+    }
+
+    /**
+     * Memory-maps a table that was written by generate().
+     *
+     * @param path Path of the table file
+     * @return Table backed by the mapped file
+     * @throws IOException If the file cannot be read or is not an equity table
+     */
+    public static PreflopEquityTable load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC
+                    || buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a preflop equity table (or an outdated one): " + path);
+            }
+            if (buffer.getInt(2 * Integer.BYTES) != NUM_CLASSES
+                    || buffer.limit() != (HEADER_INTS + 2 * NUM_CLASSES * NUM_CLASSES) * Integer.BYTES) {
+                throw new IOException("Truncated preflop equity table: " + path);
+            }
+
+            ByteBuffer body = buffer.position(HEADER_INTS * Integer.BYTES).slice();
+            return new PreflopEquityTable(body.asFloatBuffer());
+        }
+    }
+
+    /**
+     * Computes the table on a pool and writes it to the given path. This
+     * evaluates every combo on every canonical board, which takes a while; run it
+     * once.
+     *
+     * @param path Path of the table file
+     * @param pool Pool that runs the enumeration
+     * @throws IOException If the file cannot be written
+     */
+    public static void generate(Path path, ForkJoinPool pool) throws IOException {
+        boolean[] all = new boolean[NUM_CLASSES];
+        Arrays.fill(all, true);
+        compute(all, pool).save(path);
+    }
+
+    /**
+     * Writes the table to the given path, in the format read by load().
+     *
+     * @param path Path of the table file
+     * @throws IOException If the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(NUM_CLASSES);
+            for (int i = 0; i < 2 * NUM_CLASSES * NUM_CLASSES; i++) {
+                out.writeFloat(this.table.get(i));
+            }
+        }
+    }
+
+    /**
+     * Loads the table at the given path, generating it first if the file does
+     * not exist yet.
+     *
+     * @param path Path of the table file
+     * @param pool Pool that runs the enumeration if the table is generated
+     * @return Table backed by the mapped file
+     * @throws IOException If the file cannot be generated or read
+     */
+    public static PreflopEquityTable loadOrGenerate(Path path, ForkJoinPool pool) throws IOException {
+        if (!Files.exists(path)) {
+            generate(path, pool);
+        }
+        return load(path);
+    }
+
+    /**
+     * Computes the equities between some of the classes, in memory. The
+     * equities of the other classes are NaN.
+     *
+     * @param classes Whether each class is in play
+     * @param pool    Pool that runs the enumeration
+     * @return Table of the classes in play
+     */
+    public static PreflopEquityTable compute(boolean[] classes, ForkJoinPool pool) {
+        Enumeration enumeration = new Enumeration(classes);
+        long numBoards = BoardEnumerator.count(52, 5);
+        int numTasks = pool.getParallelism() * EquityCalculator.TASKS_PER_THREAD;
+
+        ArrayList<Future<double[][]>> futures = new ArrayList<>();
+        for (int i = 0; i < numTasks; i++) {
+            long from = numBoards * i / numTasks;
+            long to = numBoards * (i + 1) / numTasks;
+            futures.add(pool.submit((Callable<double[][]>) () -> enumeration.enumerate(from, to)));
+        }
+
+        double[][] counts = new double[3][NUM_CLASSES * NUM_CLASSES]; // wins, ties, deals
+        try {
+            for (Future<double[][]> future : futures) {
+                double[][] taskCounts = future.get();
+                for (int k = 0; k < counts.length; k++) {
+                    for (int i = 0; i < counts[k].length; i++) {
+                        counts[k][i] += taskCounts[k][i];
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing the preflop equities", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Preflop equity computation failed", e.getCause());
+        }
+
+        FloatBuffer table = FloatBuffer.allocate(2 * NUM_CLASSES * NUM_CLASSES);
+        for (int i = 0; i < NUM_CLASSES * NUM_CLASSES; i++) {
+            double deals = counts[2][i];
+            table.put(2 * i, (float) (counts[0][i] / deals)); // NaN if a class is not in play
+            table.put(2 * i + 1, (float) (counts[1][i] / deals));
+        }
+        return new PreflopEquityTable(table);
+    }
+
+    /**
+     * Counts, for every board, the wins, ties and deals of each combo against
+     * each class. The combos are swept by a ComboSweep with a bucket per class
+     * and a weight of 1 per combo, so that the combos sharing a card with a hero
+     * combo are left out.
+     *
+     * A suit permutation maps each class onto itself, so only the boards that
+     * are canonical under every suit permutation are evaluated, weighted by the
+     * sizes of their orbits: about 134,000 boards out of 2.6 million.
+     */
+    private static class Enumeration {
+        final int[] combos; // combos of the classes in play
+        final int[] comboClasses = new int[Range.NUM_COMBOS];
+        final double[] weights = new double[Range.NUM_COMBOS]; // 1 for the combos in play
+        final int[] classes; // indices of the classes in play
+
+        Enumeration(boolean[] inPlay) {
+            int[] combos = new int[Range.NUM_COMBOS];
+            int numCombos = 0;
+            for (int combo = 0; combo < Range.NUM_COMBOS; combo++) {
+                this.comboClasses[combo] = classIndex(Range.getCard1(combo), Range.getCard2(combo));
+                if (inPlay[this.comboClasses[combo]]) {
+                    combos[numCombos++] = combo;
+                    this.weights[combo] = 1;
+                }
+            }
+            this.combos = Arrays.copyOf(combos, numCombos);
+
+            int numClasses = 0;
+            int[] classes = new int[NUM_CLASSES];
+            for (int c = 0; c < NUM_CLASSES; c++) {
+                if (inPlay[c]) {
+                    classes[numClasses++] = c;
+                }
+            }
+            this.classes = Arrays.copyOf(classes, numClasses);
+        }
+
+        double[][] enumerate(long from, long to) {
+            double[] wins = new double[NUM_CLASSES * NUM_CLASSES];
+            double[] ties = new double[NUM_CLASSES * NUM_CLASSES];
+            double[] deals = new double[NUM_CLASSES * NUM_CLASSES];
+
+            SuitIsomorphism symmetries = new SuitIsomorphism();
+            BoardEnumerator boards = new BoardEnumerator(CardSet.EMPTY, 5, from, to);
+            BoardEvaluator evaluator = new BoardEvaluator();
+            int[] boardIds = new int[5];
+            ComboSweep sweep = new ComboSweep(this.combos, this.comboClasses, this.weights, NUM_CLASSES);
+
+            while (boards.next()) {
+                long board = boards.getBoard();
+                int multiplicity = symmetries.multiplicity(board);
+                if (multiplicity == 0) {
+                    continue;
+                }
+                boards.getBoard(boardIds, 0);
+                evaluator.setBoard(boardIds, 0, 5);
+
+                sweep.sweep(evaluator, board, combo -> {
+                    int row = this.comboClasses[combo] * NUM_CLASSES;
+                    for (int c : this.classes) {
+                        wins[row + c] += multiplicity * sweep.beaten(combo, c);
+                        ties[row + c] += multiplicity * sweep.tied(combo, c);
+                    }
+                });
+
+                for (int k = 0; k < sweep.size(); k++) {
+                    int combo = sweep.combo(k);
+                    int row = this.comboClasses[combo] * NUM_CLASSES;
+                    for (int c : this.classes) {
+                        deals[row + c] += multiplicity * sweep.dealt(combo, c);
+                    }
+                }
+            }
+            return new double[][] { wins, ties, deals };
+        }
+    }
+}
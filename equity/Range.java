@@ -0,0 +1,157 @@
+package equity;
+
+import main.Card;
+import main.Rank;
+import main.Suit;
+
+/**
+ * A range of hole cards: a weight for each of the 1326 two-card combos. A
+ * weight of 0 leaves the combo out of the range, and a weight between 0 and 1
+ * plays the combo only some of the time.
+ *
+ * The combo of the cards with ids a < b has index b * (b - 1) / 2 + a, so the
+ * combos are ordered like the colex order of BoardEnumerator.
+ */
+public class Range {
+    public static final int NUM_COMBOS = 52 * 51 / 2;
+
+    private static final int[] COMBO_CARDS1 = new int[NUM_COMBOS]; // lower card id of each combo
+    private static final int[] COMBO_CARDS2 = new int[NUM_COMBOS]; // higher card id of each combo
+    static {
+        for (int b = 1; b < 52; b++) {
+            for (int a = 0; a < b; a++) {
+                COMBO_CARDS1[comboIndex(a, b)] = a;
+                COMBO_CARDS2[comboIndex(a, b)] = b;
+            }
+        }
+    }
+
+    private final double[] weights = new double[NUM_COMBOS];
+
+    /**
+     * Constructor for an empty range.
+     */
+    public Range() {
+    }
+
+    /**
+     * Copy constructor for Range.
+     *
+     * @param range Range to copy
+     */
+    public Range(Range range) {
+        System.arraycopy(range.weights, 0, this.weights, 0, NUM_COMBOS);
+    }
+
+    /**
+     * Returns the range of every combo, with weight 1.
+     *
+     * @return Range of all hole cards
+     */
+    public static Range full() {
+        Range range = new Range();
+        for (int combo = 0; combo < NUM_COMBOS; combo++) {
+            range.weights[combo] = 1;
+        }
+        return range;
+    }
+
+    /**
+     * Returns the index of the combo of 2 cards.
+     *
+     * @param id1 Id of a card
+     * @param id2 Id of another card
+     * @return Index of the combo, 0 to NUM_COMBOS - 1
+     */
+    public static int comboIndex(int id1, int id2) {
+        int a = Math.min(id1, id2);
+        int b = Math.max(id1, id2);
+        return b * (b - 1) / 2 + a;
+    }
+
+    /**
+     * Returns the lower card id of a combo.
+     */
+    public static int getCard1(int combo) {
+        return COMBO_CARDS1[combo];
+    }
+
+    /**
+     * Returns the higher card id of a combo.
+     */
+    public static int getCard2(int combo) {
+        return COMBO_CARDS2[combo];
+    }
+
+    /**
+     * Sets the weight of a combo.
+     *
+     * @param combo  Index of the combo
+     * @param weight Weight of the combo, 0 to leave it out
+     * @throws IllegalArgumentException If the weight is negative
+     */
+    public void set(int combo, double weight) {
+        if (!(weight >= 0))
+            throw new IllegalArgumentException("Invalid weight: " + weight);
+
+        this.weights[combo] = weight;
+    }
+
+    /**
+     * Sets the weight of the combo of 2 cards.
+     *
+     * @param card1  A card of the combo
+     * @param card2  The other card of the combo
+     * @param weight Weight of the combo, 0 to leave it out
+     * @throws IllegalArgumentException If the cards are the same or the weight is
+     *                                  negative
+     */
+    public void set(Card card1, Card card2, double weight) {
+        if (card1 == card2)
+            throw new IllegalArgumentException("A combo needs 2 different cards: " + card1);
+
+        this.set(comboIndex(card1.id(), card2.id()), weight);
+    }
+
+    /**
+     * Sets the weight of every combo of a class of hole cards, e.g. the 4 combos
+     * of AKs, the 12 combos of AKo or the 6 combos of AA.
+     *
+     * @param rank1  Rank of a card
+     * @param rank2  Rank of the other card
+     * @param suited Whether the cards are suited, ignored for pairs
+     * @param weight Weight of the combos, 0 to leave them out
+     */
+    public void setClass(Rank rank1, Rank rank2, boolean suited, double weight) {
+        for (Suit suit1 : Suit.values()) {
+            for (Suit suit2 : Suit.values()) {
+                Card card1 = Card.get(rank1, suit1);
+                Card card2 = Card.get(rank2, suit2);
+                if (card1 != card2 && (rank1 == rank2 || (suit1 == suit2) == suited)) {
+                    this.set(card1, card2, weight);
+                }
+            }
+        }
+    }
+
+    public double getWeight(int combo) {
+        return this.weights[combo];
+    }
+
+    public double getWeight(Card card1, Card card2) {
+        return card1 == card2 ? 0 : this.weights[comboIndex(card1.id(), card2.id())];
+    }
+
+    /**
+     * Returns the number of combos with a positive weight.
+     */
+    public int size() {
+        int size = 0;
+        for (double weight : this.weights) {
+            if (weight > 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+}
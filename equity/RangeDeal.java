@@ -0,0 +1,213 @@
+package equity;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+import main.BoardEnumerator;
+import main.BoardEvaluator;
+import main.CardSet;
+import main.PartialShuffleDeck;
+import main.SuitIsomorphism;
+
+/**
+ * The known cards of a range-versus-range equity calculation, and the
+ * evaluation of the boards.
+ *
+ * Each board is evaluated once per combo: the combos of both ranges are
+ * sorted by strength and swept by a ComboSweep, with the whole villain range
+ * in a single bucket, which handles card removal without looking at any pair
+ * of combos.
+ *
+ * The enumeration only evaluates the boards that are canonical under the suit
+ * permutations that leave the known cards and both ranges unchanged, weighted
+ * by the size of their orbits. The counts of the combos are then spread over
+ * their images by symmetrize().
+ */
+class RangeDeal {
+    final Range hero;
+    final Range villain;
+    final int[] board; // ids of the known community cards
+    final CardSet dead; // cards that cannot be dealt to the board
+    final int numMissing; // number of community cards still to deal
+    final int[] combos; // combos in either range that do not hold a dead card
+    final SuitIsomorphism symmetries; // suit permutations that leave the cards and ranges unchanged
+    private final int[] buckets = new int[Range.NUM_COMBOS]; // a single bucket for the ComboSweep
+    private final double[] villainWeights = new double[Range.NUM_COMBOS];
+
+    RangeDeal(Range hero, Range villain, CardSet board, CardSet dead) {
+        if (board.size() > 5)
+            throw new IllegalArgumentException("The board has at most 5 cards: " + board);
+        if (board.intersects(dead))
+            throw new IllegalArgumentException("Board and dead cards overlap");
+
+        this.hero = hero;
+        this.villain = villain;
+        this.board = new int[board.size()];
+        int i = 0;
+        for (int id = board.first(); id >= 0; id = board.next(id)) {
+            this.board[i++] = id;
+        }
+        this.dead = board.union(dead);
+        this.numMissing = 5 - board.size();
+
+        int[] combos = new int[Range.NUM_COMBOS];
+        int numCombos = 0;
+        for (int combo = 0; combo < Range.NUM_COMBOS; combo++) {
+            if ((hero.getWeight(combo) > 0 || villain.getWeight(combo) > 0)
+                    && !this.dead.contains(Range.getCard1(combo)) && !this.dead.contains(Range.getCard2(combo))) {
+                combos[numCombos++] = combo;
+            }
+        }
+        this.combos = Arrays.copyOf(combos, numCombos);
+        for (int combo = 0; combo < Range.NUM_COMBOS; combo++) {
+            this.villainWeights[combo] = villain.getWeight(combo);
+        }
+
+        SuitIsomorphism cards = new SuitIsomorphism(board, dead);
+        this.symmetries = cards.retainIf(g -> fixes(cards, g, hero) && fixes(cards, g, villain));
+    }
+
+    /**
+     * Returns whether a permutation leaves the weights of a range unchanged.
+     */
+    private static boolean fixes(SuitIsomorphism symmetries, int i, Range range) {
+        for (int combo = 0; combo < Range.NUM_COMBOS; combo++) {
+            int image = Range.comboIndex(symmetries.permute(i, Range.getCard1(combo)),
+                    symmetries.permute(i, Range.getCard2(combo)));
+            if (range.getWeight(image) != range.getWeight(combo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long countBoards() {
+        return BoardEnumerator.count(52 - this.dead.size(), this.numMissing);
+    }
+
+    /**
+     * Evaluates the canonical board completions with an index in [from, to). The
+     * tallies of the tasks must be merged and then symmetrized.
+     */
+    RangeTally enumerate(long from, long to) {
+        BoardEnumerator boards = new BoardEnumerator(this.dead, this.numMissing, from, to);
+        BoardScratch scratch = new BoardScratch(this);
+        while (boards.next()) {
+            int multiplicity = this.symmetries.multiplicity(boards.getBoard());
+            if (multiplicity > 0) {
+                boards.getBoard(scratch.boardIds, this.board.length);
+                this.addBoard(scratch, boards.getBoard(), multiplicity);
+            }
+        }
+        return scratch.tally;
+    }
+
+    /**
+     * Turns the merged tally of the canonical boards into the tally of every
+     * board. A combo c wins on a board b as often as its image g(c) on g(b), so
+     * the count of c over every board is the average of the counts of its images
+     * over the canonical boards, weighted by the sizes of their orbits.
+     *
+     * @param tally Merged tally of enumerate()
+     * @return Tally of every board completion
+     */
+    RangeTally symmetrize(RangeTally tally) {
+        int size = this.symmetries.size();
+        if (size == 1) {
+            return tally;
+        }
+
+        RangeTally symmetric = new RangeTally();
+        for (int combo : this.combos) {
+            int card1 = Range.getCard1(combo);
+            int card2 = Range.getCard2(combo);
+            for (int i = 0; i < size; i++) {
+                int image = Range.comboIndex(this.symmetries.permute(i, card1), this.symmetries.permute(i, card2));
+                symmetric.wins[combo] += tally.wins[image];
+                symmetric.ties[combo] += tally.ties[image];
+                symmetric.deals[combo] += tally.deals[image];
+            }
+            symmetric.wins[combo] /= size;
+            symmetric.ties[combo] /= size;
+            symmetric.deals[combo] /= size;
+        }
+        return symmetric;
+    }
+
+    /**
+     * Evaluates random board completions.
+     */
+    RangeTally sample(int numBoards, SplittableGenerator random) {
+        PartialShuffleDeck deck = new PartialShuffleDeck(random);
+        deck.setDeadCards(this.dead);
+        BoardScratch scratch = new BoardScratch(this);
+        for (int b = 0; b < numBoards; b++) {
+            deck.reset();
+            deck.draw(scratch.boardIds, this.board.length, this.numMissing);
+            long completion = 0;
+            for (int i = this.board.length; i < 5; i++) {
+                completion |= 1L << scratch.boardIds[i];
+            }
+            this.addBoard(scratch, completion, 1);
+        }
+        return scratch.tally;
+    }
+
+    /**
+     * Adds the wins, ties and deals of every hero combo on the board held by the
+     * scratch space.
+     *
+     * @param completion   Mask of the dealt community cards
+     * @param multiplicity Number of boards that the board stands for
+     */
+    private void addBoard(BoardScratch scratch, long completion, int multiplicity) {
+        scratch.evaluator.setBoard(scratch.boardIds, 0, 5);
+        ComboSweep sweep = scratch.sweep;
+        RangeTally tally = scratch.tally;
+        sweep.sweep(scratch.evaluator, completion, combo -> {
+            if (this.hero.getWeight(combo) > 0) {
+                tally.wins[combo] += multiplicity * sweep.beaten(combo, 0);
+                tally.ties[combo] += multiplicity * sweep.tied(combo, 0);
+            }
+        });
+
+        for (int k = 0; k < sweep.size(); k++) {
+            int combo = sweep.combo(k);
+            if (this.hero.getWeight(combo) > 0) {
+                tally.deals[combo] += multiplicity * sweep.dealt(combo, 0);
+            }
+        }
+    }
+
+    /**
+     * Scratch space of a task, reused for every board.
+     */
+    private static class BoardScratch {
+        final int[] boardIds = new int[5];
+        final BoardEvaluator evaluator = new BoardEvaluator();
+        final ComboSweep sweep;
+        final RangeTally tally = new RangeTally();
+
+        BoardScratch(RangeDeal deal) {
+            System.arraycopy(deal.board, 0, this.boardIds, 0, deal.board.length);
+            this.sweep = new ComboSweep(deal.combos, deal.buckets, deal.villainWeights, 1);
+        }
+    }
+
+    /**
+     * Villain weights beaten, tied and faced by each hero combo.
+     */
+    static class RangeTally {
+        final double[] wins = new double[Range.NUM_COMBOS];
+        final double[] ties = new double[Range.NUM_COMBOS];
+        final double[] deals = new double[Range.NUM_COMBOS];
+
+        void merge(RangeTally other) {
+            for (int combo = 0; combo < Range.NUM_COMBOS; combo++) {
+                this.wins[combo] += other.wins[combo];
+                this.ties[combo] += other.ties[combo];
+                this.deals[combo] += other.deals[combo];
+            }
+        }
+    }
+}
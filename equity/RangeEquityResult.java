@@ -0,0 +1,90 @@
+package equity;
+
+import main.Card;
+
+/**
+ * Result of a range-versus-range equity calculation. For each combo of the
+ * hero's range, it holds the villain weight that the combo beats, ties and
+ * faces over every board, once the villain combos that share a card with it
+ * are left out. The equity of the range weighs each combo by its weight in the
+ * hero's range.
+ */
+public class RangeEquityResult {
+    private final Range hero;
+    private final double[] wins; // villain weight beaten, per hero combo
+    private final double[] ties; // villain weight tied, per hero combo
+    private final double[] deals; // villain weight faced, per hero combo
+    private final boolean exact;
+
+    RangeEquityResult(Range hero, double[] wins, double[] ties, double[] deals, boolean exact) {
+        this.hero = hero;
+        this.wins = wins;
+        this.ties = ties;
+        this.deals = deals;
+        this.exact = exact;
+    }
+
+    /**
+     * Returns the expected share of the pot won by the hero's range, a tie
+     * being worth half the pot.
+     *
+     * @return Equity of the range, between 0 and 1
+     */
+    public double getEquity() {
+        return (this.sum(this.wins) + this.sum(this.ties) / 2) / this.sum(this.deals);
+    }
+
+    public double getWinProbability() {
+        return this.sum(this.wins) / this.sum(this.deals);
+    }
+
+    public double getTieProbability() {
+        return this.sum(this.ties) / this.sum(this.deals);
+    }
+
+    public double getLossProbability() {
+        return 1 - this.getWinProbability() - this.getTieProbability();
+    }
+
+    /**
+     * Returns the equity of a single combo of the hero's range against the
+     * villain's range.
+     *
+     * @param card1 A card of the combo
+     * @param card2 The other card of the combo
+     * @return Equity of the combo, NaN if the combo is not in the range or never
+     *         faces a villain combo
+     */
+    public double getComboEquity(Card card1, Card card2) {
+        int combo = Range.comboIndex(card1.id(), card2.id());
+        if (card1 == card2 || this.hero.getWeight(combo) == 0 || this.deals[combo] == 0) {
+            return Double.NaN;
+        }
+        return (this.wins[combo] + this.ties[combo] / 2) / this.deals[combo];
+    }
+
+    /**
+     * Returns whether the result comes from an exact enumeration of every board.
+     */
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    /**
+     * Sums the values of the hero's combos, weighted by their weights.
+     */
+    private double sum(double[] values) {
+        double sum = 0;
+        for (int combo = 0; combo < Range.NUM_COMBOS; combo++) {
+            sum += this.hero.getWeight(combo) * values[combo];
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("equity %.4f (win %.4f, tie %.4f, loss %.4f)%s", this.getEquity(),
+                this.getWinProbability(), this.getTieProbability(), this.getLossProbability(),
+                this.exact ? ", exact" : "");
+    }
+}
@@ -0,0 +1,98 @@
+package equity;
+
+/**
+ * Mutable counts of the deals of an equity calculation, filled by one worker
+ * and then merged into the counts of the other workers.
+ */
+class Tally {
+    long wins;
+    long ties;
+    long losses;
+    double potShares;
+    double squaredPotShares;
+
+    /**
+     * Adds a deal.
+     *
+     * @param strength     Strength of the hand
+     * @param bestOpponent Strength of the best opponent hand
+     * @param numTied      Number of opponents with the best opponent hand
+     */
+    void add(int strength, int bestOpponent, int numTied) {
+        if (strength > bestOpponent) {
+            this.addWin();
+        } else if (strength == bestOpponent) {
+            this.addTie(numTied + 1);
+        } else {
+            this.losses++;
+        }
+    }
+
+    /**
+     * Adds a showdown of the Dealer, where the hand is at seat 0.
+     *
+     * @param winners Mask of the seats that won, see Dealer.determineWinnerMask()
+     */
+    void addWinners(int winners) {
+        if ((winners & 1) == 0) {
+            this.losses++;
+        } else if (winners == 1) {
+            this.addWin();
+        } else {
+            this.addTie(Integer.bitCount(winners));
+        }
+    }
+
+    private void addWin() {
+        this.wins++;
+        this.potShares++;
+        this.squaredPotShares++;
+    }
+
+    private void addTie(int numWinners) {
+        double share = 1.0 / numWinners;
+        this.ties++;
+        this.potShares += share;
+        this.squaredPotShares += share * share;
+    }
+
+    void merge(Tally other) {
+        this.wins += other.wins;
+        this.ties += other.ties;
+        this.losses += other.losses;
+        this.potShares += other.potShares;
+        this.squaredPotShares += other.squaredPotShares;
+    }
+
+    /**
+     * Adds the counts of deals that stand for several deals each, e.g. the deals
+     * of a canonical board that stand for every board of its orbit.
+     *
+     * @param other        Counts to add
+     * @param multiplicity Number of deals that each deal of the counts stands
+     *                     for
+     */
+    void merge(Tally other, long multiplicity) {
+        this.wins += other.wins * multiplicity;
+        this.ties += other.ties * multiplicity;
+        this.losses += other.losses * multiplicity;
+        this.potShares += other.potShares * multiplicity;
+        this.squaredPotShares += other.squaredPotShares * multiplicity;
+    }
+
+    void clear() {
+        this.wins = 0;
+        this.ties = 0;
+        this.losses = 0;
+        this.potShares = 0;
+        this.squaredPotShares = 0;
+    }
+
+    long getNumDeals() {
+        return this.wins + this.ties + this.losses;
+    }
+
+    EquityResult toResult(boolean exact) {
+        return new EquityResult(this.wins, this.ties, this.losses, this.potShares, this.squaredPotShares, exact);
+    }
+}
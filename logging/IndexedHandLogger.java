@@ -0,0 +1,184 @@
+package logging;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import logging.interfaces.PokerLogger;
+import main.BufferedDeck;
+import main.Card;
+import main.Dealer;
+import main.IndexedDeck;
+import main.Player;
+
+/**
+ * Logs the hands played in a game by their index in an IndexedDeck. Each hand
+ * is stored as a single long instead of its text, and the HandLog is
+ * regenerated by dealing the hand again when it is needed.
+ *
+ * The hands must be dealt the standard way: shuffle(), deal(), dealFlop(),
+ * dealTurn() and dealRiver(), or dealHand(), on a Dealer that uses the deck.
+ */
+public class IndexedHandLogger implements PokerLogger {
+    private final long seed;
+    private final LongSupplier handIndex; // index of the hand currently dealt
+    private long[] handIndices = new long[1024];
+    private int numLogs = 0;
+    private int[] playerids; // ids of the players, in seat order
+
+    /**
+     * Constructor for IndexedHandLogger.
+     * 
+     * @param deck Deck that the logged hands are dealt from
+     */
+    public IndexedHandLogger(IndexedDeck deck) {
+        this.seed = deck.getSeed();
+        this.handIndex = deck::getHandIndex;
+    }
+
+    /**
+     * Constructor for an IndexedHandLogger that only collects the hands of other
+     * loggers, see merge().
+     * 
+     * @param seed Seed of the IndexedDeck the hands are dealt from
+     */
+    public IndexedHandLogger(long seed) {
+        this.seed = seed;
+        this.handIndex = () -> {
+            throw new IllegalStateException("Hands can only be merged into this logger");
+        };
+    }
+
+    /**
+     * Constructor for IndexedHandLogger, for hands dealt from a BufferedDeck that
+     * wraps a new IndexedDeck: the i-th deal of the BufferedDeck is hand i.
+     * 
+     * @param seed Seed of the wrapped IndexedDeck
+     * @param deck Deck that the logged hands are dealt from
+     */
+    public IndexedHandLogger(long seed, BufferedDeck deck) {
+        this.seed = seed;
+        this.handIndex = deck::getDealIndex;
+    }
+
+    /**
+     * Adds the hand currently dealt by the deck to the log.
+     * 
+     * @param communityCards The community cards
+     * @param players        The players who played the hand
+     * @param winners        The winners of the hand
+     */
+    public void addLog(ArrayList<Card> communityCards, ArrayList<Player> players, ArrayList<Player> winners) {
+        this.addLog(communityCards, players, 0);
+    }
+
+    /**
+     * Adds the hand currently dealt by the deck to the log. The winners are not
+     * stored, they are found again when the hand is replayed.
+     * 
+     * @param communityCards The community cards
+     * @param players        The players who played the hand, in seat order
+     * @param winnerMask     Mask with bit i set if the player at seat i won
+     */
+    @Override
+    public void addLog(List<Card> communityCards, List<Player> players, int winnerMask) {
+        if (this.playerids == null) {
+            this.playerids = new int[players.size()];
+            for (int i = 0; i < players.size(); i++) {
+                this.playerids[i] = players.get(i).getPlayerid();
+            }
+        }
+
+        if (this.numLogs == this.handIndices.length) {
+            this.handIndices = Arrays.copyOf(this.handIndices, this.numLogs * 2);
+        }
+        this.handIndices[this.numLogs++] = this.handIndex.getAsLong();
+    }
+
+    /**
+     * Appends the hands logged by another logger, e.g. to combine the shards of
+     * a parallel simulation in the order of their hands.
+     * 
+     * @param other Logger of hands dealt with the same seed
+     * @throws IllegalArgumentException If the hands were dealt with another seed
+     */
+    public void merge(IndexedHandLogger other) {
+        if (other.seed != this.seed)
+            throw new IllegalArgumentException("Cannot merge hands dealt with another seed");
+
+        if (this.playerids == null) {
+            this.playerids = other.playerids;
+        }
+        if (this.numLogs + other.numLogs > this.handIndices.length) {
+            this.handIndices = Arrays.copyOf(this.handIndices,
+                    Math.max(this.handIndices.length * 2, this.numLogs + other.numLogs));
+        }
+        System.arraycopy(other.handIndices, 0, this.handIndices, this.numLogs, other.numLogs);
+        this.numLogs += other.numLogs;
+    }
+
+    public int getNumLogs() {
+        return this.numLogs;
+    }
+
+    public long getHandIndex(int i) {
+        return this.handIndices[i];
+    }
+
+    /**
+     * Regenerates the i-th logged hand.
+     * 
+     * @param i Position of the hand in the log
+     * @return Log of the hand
+     */
+    public HandLog getLog(int i) {
+        return replay(this.seed, this.handIndices[i], this.playerids);
+    }
+
+    /**
+     * Deals a hand again from its index.
+     * 
+     * @param seed      Seed of the IndexedDeck the hand was dealt from
+     * @param handIndex Index of the hand
+     * @param playerids Ids of the players, in seat order
+     * @return Log of the hand
+     */
+    public static HandLog replay(long seed, long handIndex, int[] playerids) {
+        IndexedDeck deck = new IndexedDeck(seed);
+        deck.seek(handIndex);
+
+        Dealer dealer = new Dealer(deck);
+        for (int playerid : playerids) {
+            dealer.addPlayer(new Player(playerid));
+        }
+
+        dealer.shuffle();
+        dealer.deal();
+        dealer.dealFlop();
+        dealer.dealTurn();
+        dealer.dealRiver();
+        ArrayList<Player> winners = dealer.determineWinner();
+
+        return new HandLog(dealer.getCommunityCards(), dealer.getPlayers(), winners);
+    }
+
+    /**
+     * Regenerates all the logged hands and writes them to a file.
+     * 
+     * @param filename Name of the file
+     * @throws IOException If the file cannot be written
+     */
+    public void printLogsToFile(String filename) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+            for (int i = 0; i < this.numLogs; i++) {
+                writer.write("Hand #" + this.handIndices[i] + "\n");
+                writer.write(this.getLog(i).toString());
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package logging;
 
+/**
+ * Counts how many times something was dealt and won, and estimates its win
+ * rate with a Wilson score interval.
+ */
 public class StatsLog {
+    public static final double Z_95 = 1.959963984540054; // z-score of a 95% confidence interval
 
     private int numDealt = 0;
     private int numWon = 0;
@@ -12,6 +17,16 @@ public class StatsLog {
         }
     }
 
+    /**
+     * Adds the stats of another log to this one.
+     * 
+     * @param other Log to add
+     */
+    public void merge(StatsLog other) {
+        this.numDealt += other.numDealt;
+        this.numWon += other.numWon;
+    }
+
     public int getNumDealt() {
         return this.numDealt;
     }
@@ -19,4 +34,45 @@ public class StatsLog {
     public int getNumWon() {
         return this.numWon;
     }
+
+    public double getWinRate() {
+        return this.numDealt == 0 ? 0 : (double) this.numWon / this.numDealt;
+    }
+
+    /**
+     * Returns the Wilson score interval of the win rate. Unlike the normal
+     * approximation, it stays within [0, 1] and is reliable for win rates close
+     * to 0 or 1.
+     * 
+     * @param z z-score of the confidence level, e.g. Z_95
+     * @return [lower bound, upper bound], [0, 1] if nothing was dealt
+     */
+    public double[] getConfidenceInterval(double z) {
+        if (this.numDealt == 0) {
+            return new double[] { 0, 1 };
+        }
+        double center = this.getWilsonCenter(z);
+        double halfWidth = this.getHalfWidth(z);
+        return new double[] { center - halfWidth, center + halfWidth };
+    }
+
+    /**
+     * Returns the half-width of the Wilson score interval of the win rate.
+     * 
+     * @param z z-score of the confidence level, e.g. Z_95
+     * @return Half-width of the interval, 0.5 if nothing was dealt
+     */
+    public double getHalfWidth(double z) {
+        if (this.numDealt == 0) {
+            return 0.5;
+        }
+        double n = this.numDealt;
+        double p = this.getWinRate();
+        return z * Math.sqrt(p * (1 - p) / n + z * z / (4 * n * n)) / (1 + z * z / n);
+    }
+
+    private double getWilsonCenter(double z) {
+        double n = this.numDealt;
+        return (this.getWinRate() + z * z / (2 * n)) / (1 + z * z / n);
+    }
 }
@@ -1,9 +1,8 @@
 package logging;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 
 import logging.interfaces.PokerLogger;
 import main.Card;
@@ -20,6 +19,8 @@ public class StatsLogger implements PokerLogger {
     protected final HashMap<Rank, HashMap<Rank, StatsLog>> unsuitedStats = new HashMap<>(); // For unsuited hole cards
     protected final HashMap<HandRank, StatsLog> handRankStats = new HashMap<>(); // For hand ranks
 
+    public static final int NUM_CLASSES = 169; // 13 pairs + 78 suited + 78 offsuit hole cards
+
     /**
      * Adds a hand to the log.
      * 
@@ -28,49 +29,178 @@ public class StatsLogger implements PokerLogger {
      * @param winners        The winners of the hand
      */
     public void addLog(ArrayList<Card> communityCards, ArrayList<Player> players, ArrayList<Player> winners) {
-        HashSet<Integer> winnersSet = new HashSet<>();
-        for (Player winner : winners) {
-            winnersSet.add(winner.getPlayerid());
-        }
-
         for (Player player : players) {
-            boolean isWinner = winnersSet.contains(player.getPlayerid());
+            boolean isWinner = false;
             for (Player winner : winners) {
                 if (player.getPlayerid() == winner.getPlayerid()) {
                     isWinner = true;
                     break;
                 }
             }
+            this.addStat(player, isWinner);
+        }
+    }
 
-            ArrayList<Card> holeCards = player.getCards();
-            Collections.sort(holeCards, Card.sortByRankComparatorDESC); // Sort the cards by rank DESC
-            Rank rank1 = holeCards.get(0).getRank(); // Rank of the higher card
-            Rank rank2 = holeCards.get(1).getRank(); // Rank of the lower card
-            boolean isSuited = holeCards.get(0).getSuit() == holeCards.get(1).getSuit();
+    /**
+     * Adds a hand to the log without allocating, once every set of hole cards
+     * and hand rank has been seen.
+     * 
+     * @param communityCards The community cards
+     * @param players        The players who played the hand, in seat order
+     * @param winnerMask     Mask with bit i set if the player at seat i won
+     */
+    @Override
+    public void addLog(List<Card> communityCards, List<Player> players, int winnerMask) {
+        for (int seat = 0; seat < players.size(); seat++) {
+            this.addStat(players.get(seat), (winnerMask & 1 << seat) != 0);
+        }
+    }
 
-            HashMap<Rank, HashMap<Rank, StatsLog>> stats = isSuited ? suitedStats : unsuitedStats;
+    /**
+     * Adds the stats of another logger to this one, e.g. to combine the shards
+     * of a parallel simulation.
+     * 
+     * @param other Logger to add
+     */
+    public void merge(StatsLogger other) {
+        mergeHoleCardStats(this.suitedStats, other.suitedStats);
+        mergeHoleCardStats(this.unsuitedStats, other.unsuitedStats);
+        for (HandRank handRank : other.handRankStats.keySet()) {
+            this.handRankStats.computeIfAbsent(handRank, k -> new StatsLog()).merge(other.handRankStats.get(handRank));
+        }
+    }
 
-            if (!stats.containsKey(rank1)) {
-                stats.put(rank1, new HashMap<>());
+    private static void mergeHoleCardStats(HashMap<Rank, HashMap<Rank, StatsLog>> stats,
+            HashMap<Rank, HashMap<Rank, StatsLog>> other) {
+        for (Rank rank1 : other.keySet()) {
+            HashMap<Rank, StatsLog> stats2 = stats.computeIfAbsent(rank1, k -> new HashMap<>());
+            for (Rank rank2 : other.get(rank1).keySet()) {
+                stats2.computeIfAbsent(rank2, k -> new StatsLog()).merge(other.get(rank1).get(rank2));
             }
+        }
+    }
+
+    /**
+     * Returns the stats of a set of hole cards.
+     * 
+     * @param rank1    Rank of the higher card
+     * @param rank2    Rank of the lower card
+     * @param isSuited Whether the cards are suited
+     * @return Stats of the hole cards, or null if they were never dealt
+     */
+    public StatsLog getStats(Rank rank1, Rank rank2, boolean isSuited) {
+        HashMap<Rank, StatsLog> stats2 = (isSuited ? suitedStats : unsuitedStats).get(rank1);
+        return stats2 == null ? null : stats2.get(rank2);
+    }
+
+    /**
+     * Returns the stats of a hand rank.
+     * 
+     * @param handRank Rank of the hand
+     * @return Stats of the hand rank, or null if it was never made
+     */
+    public StatsLog getStats(HandRank handRank) {
+        return handRankStats.get(handRank);
+    }
 
-            HashMap<Rank, StatsLog> stats2 = stats.get(rank1);
-            if (!stats2.containsKey(rank2)) {
-                stats2.put(rank2, new StatsLog());
+    /**
+     * Counts the hole-card classes (e.g. AKs, AKo, AA) whose win rate is known
+     * to within a half-width. Classes that were never dealt are not converged.
+     * 
+     * @param z         z-score of the confidence level, e.g. StatsLog.Z_95
+     * @param halfWidth Target half-width of the confidence intervals
+     * @return Number of converged classes, out of NUM_CLASSES
+     */
+    public int countConverged(double z, double halfWidth) {
+        int converged = 0;
+        for (HashMap<Rank, HashMap<Rank, StatsLog>> stats : List.of(suitedStats, unsuitedStats)) {
+            for (HashMap<Rank, StatsLog> stats2 : stats.values()) {
+                for (StatsLog statsLog : stats2.values()) {
+                    if (statsLog.getHalfWidth(z) <= halfWidth) {
+                        converged++;
+                    }
+                }
             }
+        }
+        return converged;
+    }
 
-            StatsLog statsLog = stats2.get(rank2);
-            statsLog.addStat(isWinner);
+    /**
+     * Returns whether the win rate of every hole-card class is known to within a
+     * half-width.
+     * 
+     * @param z         z-score of the confidence level, e.g. StatsLog.Z_95
+     * @param halfWidth Target half-width of the confidence intervals
+     * @return True if all NUM_CLASSES classes have converged
+     */
+    public boolean hasConverged(double z, double halfWidth) {
+        return this.countConverged(z, halfWidth) == NUM_CLASSES;
+    }
 
-            // Hand rank stats
-            HandRank handRank = player.getHand().getHandRank();
-            if (!handRankStats.containsKey(handRank)) {
-                handRankStats.put(handRank, new StatsLog());
+    /**
+     * Describes how far the hole-card classes are from converging: the number of
+     * converged classes and the class with the widest confidence interval.
+     * 
+     * @param z         z-score of the confidence level, e.g. StatsLog.Z_95
+     * @param halfWidth Target half-width of the confidence intervals
+     * @return Report, e.g. "150/169 classes converged, widest: 72s 0.3100 +- 0.0061"
+     */
+    public String getConvergenceReport(double z, double halfWidth) {
+        String widestClass = null;
+        StatsLog widest = null;
+        for (Rank rank1 : Rank.values()) {
+            for (Rank rank2 : Rank.values()) {
+                for (boolean isSuited : new boolean[] { true, false }) {
+                    StatsLog statsLog = this.getStats(rank1, rank2, isSuited);
+                    if (statsLog != null && (widest == null || statsLog.getHalfWidth(z) > widest.getHalfWidth(z))) {
+                        widest = statsLog;
+                        widestClass = rank1.toString() + rank2 + (rank1 == rank2 ? "" : isSuited ? "s" : "o");
+                    }
+                }
             }
+        }
+
+        String report = this.countConverged(z, halfWidth) + "/" + NUM_CLASSES + " classes converged";
+        if (widest != null) {
+            report += String.format(", widest: %s %.4f +- %.4f", widestClass, widest.getWinRate(),
+                    widest.getHalfWidth(z));
+        }
+        return report;
+    }
+
+    private void addStat(Player player, boolean isWinner) {
+        Card card1 = player.getCard(0);
+        Card card2 = player.getCard(1);
+        Rank rank1 = card1.getRank(); // Rank of the higher card
+        Rank rank2 = card2.getRank(); // Rank of the lower card
+        if (rank2.ordinal() > rank1.ordinal()) {
+            rank1 = card2.getRank();
+            rank2 = card1.getRank();
+        }
+        boolean isSuited = card1.getSuit() == card2.getSuit();
+
+        HashMap<Rank, HashMap<Rank, StatsLog>> stats = isSuited ? suitedStats : unsuitedStats;
 
-            StatsLog handRankStatsLog = handRankStats.get(handRank);
-            handRankStatsLog.addStat(isWinner);
+        if (!stats.containsKey(rank1)) {
+            stats.put(rank1, new HashMap<>());
         }
+
+        HashMap<Rank, StatsLog> stats2 = stats.get(rank1);
+        if (!stats2.containsKey(rank2)) {
+            stats2.put(rank2, new StatsLog());
+        }
+
+        StatsLog statsLog = stats2.get(rank2);
+        statsLog.addStat(isWinner);
+
+        // Hand rank stats
+        HandRank handRank = player.getHandRank(); // does not build the player's Hand
+        if (!handRankStats.containsKey(handRank)) {
+            handRankStats.put(handRank, new StatsLog());
+        }
+
+        StatsLog handRankStatsLog = handRankStats.get(handRank);
+        handRankStatsLog.addStat(isWinner);
     }
 
 }
@@ -1,6 +1,7 @@
 package logging.interfaces;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import main.Card;
 import main.Player;
@@ -14,4 +15,23 @@ public interface PokerLogger {
      * Adds a log to the log.
      */
     public void addLog(ArrayList<Card> communityCards, ArrayList<Player> players, ArrayList<Player> winners);
+
+    /**
+     * Adds a log to the log, with the winners given as a seat mask (see
+     * Dealer.determineWinnerMask()). Loggers can override it to log a hand
+     * without allocating, this default copies the lists.
+     * 
+     * @param communityCards The community cards
+     * @param players        The players who played the hand, in seat order
+     * @param winnerMask     Mask with bit i set if the player at seat i won
+     */
+    public default void addLog(List<Card> communityCards, List<Player> players, int winnerMask) {
+        ArrayList<Player> winners = new ArrayList<>();
+        for (int seat = 0; seat < players.size(); seat++) {
+            if ((winnerMask & 1 << seat) != 0) {
+                winners.add(players.get(seat));
+            }
+        }
+        this.addLog(new ArrayList<>(communityCards), new ArrayList<>(players), winners);
+    }
 }
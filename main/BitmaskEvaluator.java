@@ -0,0 +1,187 @@
+package main;
+
+import java.util.List;
+
+/**
+ * Evaluates poker hands stored as a bitmask, without lookup tables and without
+ * allocating. The cards are stored in a long with 13 bits per suit (bit
+ * Card.id() = suit * 13 + rank, the layout of CardSet), so the cards of a suit
+ * can be read with a shift and a mask. Flushes, straights and n-of-a-kind are
+ * then found with popcount and shift arithmetic on the 13-bit rank masks.
+ *
+ * The returned value is the packed HandStrength of the hand, which orders
+ * hands the same way as the HandRank and Hand.getScore() pair of
+ * HandRankEvaluator.
+ */
+public class BitmaskEvaluator {
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final int RANK_MASK = (1 << NUM_RANKS) - 1;
+
+    private static final int ACE = Rank.ACE.ordinal();
+
+    /**
+     * Returns the bitmask of a single card.
+     *
+     * @param card Card to convert
+     * @return Bitmask with only the card's bit set
+     */
+    public static long toMask(Card card) {
+        return 1L << card.id();
+    }
+
+    /**
+     * Returns the bitmask of a list of cards.
+     *
+     * @param cards Cards to convert
+     * @return Bitmask with the bit of every card set
+     */
+    public static long toMask(List<Card> cards) {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= toMask(card);
+        }
+        return mask;
+    }
+
+    /**
+     * Evaluates a list of 5 to 7 cards.
+     *
+     * @param cards Cards to evaluate
+     * @return Strength of the hand, higher strength wins
+     */
+    public static int evaluate(List<Card> cards) {
+        return evaluate(toMask(cards));
+    }
+
+    /**
+     * Evaluates a set of 5 to 7 cards.
+     *
+     * @param cards Cards to evaluate
+     * @return Strength of the hand, higher strength wins
+     */
+    public static int evaluate(CardSet cards) {
+        return evaluate(cards.bits());
+    }
+
+    /**
+     * Evaluates a bitmask of 5 to 7 cards.
+     *
+     * @param cards Bitmask of the cards to evaluate
+     * @return Strength of the hand, higher strength wins
+     */
+    public static int evaluate(long cards) {
+        int spades = (int) cards & RANK_MASK;
+        int hearts = (int) (cards >>> NUM_RANKS) & RANK_MASK;
+        int clubs = (int) (cards >>> (2 * NUM_RANKS)) & RANK_MASK;
+        int diamonds = (int) (cards >>> (3 * NUM_RANKS)) & RANK_MASK;
+
+        // ranks held in at least 2, 3 and 4 suits
+        int twoOrMore = (spades & hearts) | (clubs & diamonds) | ((spades | hearts) & (clubs | diamonds));
+        int threeOrMore = (spades & hearts & (clubs | diamonds)) | (clubs & diamonds & (spades | hearts));
+        int four = spades & hearts & clubs & diamonds;
+
+        int flush = 0;
+        flush |= Integer.bitCount(spades) >= 5 ? spades : 0;
+        flush |= Integer.bitCount(hearts) >= 5 ? hearts : 0;
+        flush |= Integer.bitCount(clubs) >= 5 ? clubs : 0;
+        flush |= Integer.bitCount(diamonds) >= 5 ? diamonds : 0;
+
+        return classify(spades | hearts | clubs | diamonds, twoOrMore, threeOrMore, four, flush);
+    }
+
+    /**
+     * Computes the strength of a hand from its rank masks. With at most 7 cards a
+     * flush cannot be combined with a four of a kind or a full house, so the
+     * flush is checked first.
+     *
+     * @param ranks       ranks held at least once
+     * @param twoOrMore   ranks held at least twice
+     * @param threeOrMore ranks held at least 3 times
+     * @param four        ranks held 4 times
+     * @param flush       ranks of the flush suit, or 0 if there is no flush
+     * @return Strength of the hand
+     */
+    static int classify(int ranks, int twoOrMore, int threeOrMore, int four, int flush) {
+        if (flush != 0) {
+            int straightFlush = highestStraight(flush);
+            if (straightFlush == ACE) {
+                return HandStrength.pack(HandRank.ROYAL_FLUSH, straightFlush << 16);
+            } else if (straightFlush >= 0) {
+                return HandStrength.pack(HandRank.STRAIGHT_FLUSH, straightFlush << 16);
+            }
+            return HandStrength.pack(HandRank.FLUSH, highestRanks(flush, 5));
+        }
+
+        if (four != 0) {
+            int quads = highestRank(four);
+            return HandStrength.pack(HandRank.FOUR_OF_A_KIND, quads << 16 | highestRank(ranks & ~(1 << quads)) << 12);
+        }
+
+        int trips = threeOrMore != 0 ? highestRank(threeOrMore) : -1;
+        if (trips >= 0) {
+            int pairs = twoOrMore & ~(1 << trips); // a second three of a kind counts as a pair
+            if (pairs != 0) {
+                return HandStrength.pack(HandRank.FULL_HOUSE, trips << 16 | highestRank(pairs) << 12);
+            }
+        }
+
+        int straight = highestStraight(ranks);
+        if (straight >= 0) {
+            return HandStrength.pack(HandRank.STRAIGHT, straight << 16);
+        }
+
+        if (trips >= 0) {
+            return HandStrength.pack(HandRank.THREE_OF_A_KIND, trips << 16 | highestRanks(ranks & ~(1 << trips), 2) << 8);
+        }
+
+        int pairs = twoOrMore;
+        if (Integer.bitCount(pairs) >= 2) {
+            int highPair = highestRank(pairs);
+            int lowPair = highestRank(pairs & ~(1 << highPair));
+            int kicker = highestRank(ranks & ~(1 << highPair) & ~(1 << lowPair));
+            return HandStrength.pack(HandRank.TWO_PAIR, highPair << 16 | lowPair << 12 | kicker << 8);
+        }
+        if (pairs != 0) {
+            int pair = highestRank(pairs);
+            return HandStrength.pack(HandRank.PAIR, pair << 16 | highestRanks(ranks & ~(1 << pair), 3) << 4);
+        }
+
+        return HandStrength.pack(HandRank.HIGH_CARD, highestRanks(ranks, 5));
+    }
+
+    /**
+     * Returns the highest rank of the highest straight in a rank mask. The ace
+     * also counts as the low card of the wheel (A2345), whose highest rank is
+     * the five.
+     *
+     * @param ranks Rank mask
+     * @return Highest rank of the straight, or -1 if there is no straight
+     */
+    static int highestStraight(int ranks) {
+        // shift the ranks up by one and copy the ace into bit 0 (low ace)
+        int withLowAce = ranks << 1 | ranks >>> ACE;
+        int straights = withLowAce & withLowAce << 1 & withLowAce << 2 & withLowAce << 3 & withLowAce << 4;
+        return straights == 0 ? -1 : 30 - Integer.numberOfLeadingZeros(straights);
+    }
+
+    /**
+     * Returns the highest rank in a non-empty rank mask.
+     */
+    private static int highestRank(int ranks) {
+        return 31 - Integer.numberOfLeadingZeros(ranks);
+    }
+
+    /**
+     * Packs the n highest ranks of a rank mask, one nibble each, the highest rank
+     * in the most significant nibble.
+     */
+    private static int highestRanks(int ranks, int n) {
+        int packed = 0;
+        for (int i = 0; i < n; i++) {
+            int rank = highestRank(ranks);
+            ranks &= ~(1 << rank);
+            packed = packed << 4 | rank;
+        }
+        return packed;
+    }
+}
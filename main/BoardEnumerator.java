@@ -0,0 +1,158 @@
+package main;
+
+/**
+ * Enumerates every k-card board that can be made from the cards that are not
+ * dead, in the order of the combinatorial number system (colex order). A board
+ * is a subset of the live cards, stored as a bitmask over their positions, and
+ * the next board is found with Gosper's hack in a few instructions. Each board
+ * has an index (its combinadic rank), so the enumeration can be split into
+ * contiguous ranges of indices, e.g. one per worker.
+ *
+ * Usage: while (enumerator.next()) { long board = enumerator.getBoard(); ... }
+ */
+public class BoardEnumerator {
+    private static final long[][] BINOMIALS = new long[53][8]; // n choose k, k <= 7
+    static {
+        for (int n = 0; n < BINOMIALS.length; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k < BINOMIALS[n].length && n > 0; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    private final int[] liveCards; // ids of the cards that can be on the board
+    private final int k; // number of cards to deal to the board
+    private final long from; // index of the first board of the range
+    private final long to; // index after the last board of the range
+
+    private long index; // index of the current board
+    private long positions; // positions in liveCards of the current board's cards
+    private boolean started = false;
+
+    /**
+     * Constructor for a BoardEnumerator over all the k-card boards.
+     * 
+     * @param dead Cards that cannot be on the board (hole cards, known board...)
+     * @param k    Number of cards to deal to the board, 0 to 7
+     */
+    public BoardEnumerator(CardSet dead, int k) {
+        this(dead, k, 0, count(52 - dead.size(), k));
+    }
+
+    /**
+     * Constructor for a BoardEnumerator over the boards with an index in
+     * [from, to).
+     * 
+     * @param dead Cards that cannot be on the board (hole cards, known board...)
+     * @param k    Number of cards to deal to the board, 0 to 7
+     * @param from Index of the first board
+     * @param to   Index after the last board
+     */
+    public BoardEnumerator(CardSet dead, int k, long from, long to) {
+        CardSet live = CardSet.FULL_DECK.removeAll(dead);
+        this.liveCards = new int[live.size()];
+        int i = 0;
+        for (int id = live.first(); id >= 0; id = live.next(id)) {
+            this.liveCards[i++] = id;
+        }
+
+        if (k < 0 || k > 7 || k > this.liveCards.length) {
+            throw new IllegalArgumentException("Cannot deal " + k + " cards from " + this.liveCards.length);
+        }
+        if (from < 0 || from > to || to > count(this.liveCards.length, k)) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ")");
+        }
+
+        this.k = k;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Returns the number of k-card subsets of n cards.
+     * 
+     * @param n Number of cards
+     * @param k Number of cards in the subsets, 0 to 7
+     * @return n choose k
+     */
+    public static long count(int n, int k) {
+        return k > n ? 0 : BINOMIALS[n][k];
+    }
+
+    /**
+     * Returns the number of boards in the range of this enumerator.
+     */
+    public long size() {
+        return this.to - this.from;
+    }
+
+    /**
+     * Moves to the next board.
+     * 
+     * @return false if there are no boards left in the range
+     */
+    public boolean next() {
+        if (!this.started) {
+            this.started = true;
+            this.index = this.from;
+            this.positions = this.unrank(this.from);
+        } else {
+            this.index++;
+            if (this.k > 0 && this.index < this.to) {
+                // Gosper's hack: next larger number with the same number of set bits
+                long lowest = this.positions & -this.positions;
+                long ripple = this.positions + lowest;
+                this.positions = (((ripple ^ this.positions) >>> 2) / lowest) | ripple;
+            }
+        }
+        return this.index < this.to;
+    }
+
+    /**
+     * Returns the index of the current board.
+     */
+    public long getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Returns the current board as a bitmask of card ids (see CardSet).
+     */
+    public long getBoard() {
+        long board = 0;
+        for (long p = this.positions; p != 0; p &= p - 1) {
+            board |= 1L << this.liveCards[Long.numberOfTrailingZeros(p)];
+        }
+        return board;
+    }
+
+    /**
+     * Writes the ids of the current board's cards to an array.
+     * 
+     * @param dest   Array to write to
+     * @param offset Index of the first card in the array
+     */
+    public void getBoard(int[] dest, int offset) {
+        for (long p = this.positions; p != 0; p &= p - 1) {
+            dest[offset++] = this.liveCards[Long.numberOfTrailingZeros(p)];
+        }
+    }
+
+    /**
+     * Returns the positions of the board with the given index: the subset
+     * {c_1 < ... < c_k} with index = C(c_1, 1) + ... + C(c_k, k).
+     */
+    private long unrank(long index) {
+        long positions = 0;
+        int c = this.liveCards.length;
+        for (int i = this.k; i > 0; i--) {
+            do {
+                c--;
+            } while (BINOMIALS[c][i] > index);
+            positions |= 1L << c;
+            index -= BINOMIALS[c][i];
+        }
+        return positions;
+    }
+}
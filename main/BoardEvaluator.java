@@ -0,0 +1,93 @@
+package main;
+
+/**
+ * Evaluates many hands that share the same board. setBoard() precomputes the
+ * board's rank histogram (as the masks of ranks held at least 1, 2, 3 and 4
+ * times), its suit counts and its rank masks per suit once per hand. Each
+ * player is then scored by adding only their 2 hole cards to that state, so
+ * the cost of a showdown grows with the number of players by 2 cards each
+ * instead of 7.
+ *
+ * A BoardEvaluator is reusable and allocation-free, but not thread-safe.
+ */
+public class BoardEvaluator {
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final int NUM_SUITS = Suit.values().length;
+
+    // board state, see setBoard()
+    private int ranks; // ranks held at least once
+    private int twoOrMore; // ranks held at least twice
+    private int threeOrMore; // ranks held at least 3 times
+    private int four; // ranks held 4 times
+    private final int[] suitRanks = new int[NUM_SUITS]; // ranks held in each suit
+    private final int[] suitCounts = new int[NUM_SUITS]; // number of cards of each suit
+
+    /**
+     * Sets the board that the next hands are evaluated against.
+     *
+     * @param cardIds Array holding the ids of the board cards (see Card.id())
+     * @param offset  Index of the first card in the array
+     * @param length  Number of board cards, 3 to 5
+     */
+    public void setBoard(int[] cardIds, int offset, int length) {
+        this.ranks = 0;
+        this.twoOrMore = 0;
+        this.threeOrMore = 0;
+        this.four = 0;
+        for (int suit = 0; suit < NUM_SUITS; suit++) {
+            this.suitRanks[suit] = 0;
+            this.suitCounts[suit] = 0;
+        }
+
+        for (int i = offset; i < offset + length; i++) {
+            int rankBit = 1 << (cardIds[i] % NUM_RANKS);
+            int suit = cardIds[i] / NUM_RANKS;
+
+            this.four |= this.threeOrMore & rankBit;
+            this.threeOrMore |= this.twoOrMore & rankBit;
+            this.twoOrMore |= this.ranks & rankBit;
+            this.ranks |= rankBit;
+            this.suitRanks[suit] |= rankBit;
+            this.suitCounts[suit]++;
+        }
+    }
+
+    /**
+     * Evaluates the board together with 2 hole cards.
+     *
+     * @param holeCard1 Id of the first hole card
+     * @param holeCard2 Id of the second hole card
+     * @return Strength of the hand, see HandStrength
+     */
+    public int evaluate(int holeCard1, int holeCard2) {
+        int rankBit1 = 1 << (holeCard1 % NUM_RANKS);
+        int rankBit2 = 1 << (holeCard2 % NUM_RANKS);
+        int suit1 = holeCard1 / NUM_RANKS;
+        int suit2 = holeCard2 / NUM_RANKS;
+
+        // add the first hole card to the histogram, then the second one
+        int four = this.four | (this.threeOrMore & rankBit1);
+        int threeOrMore = this.threeOrMore | (this.twoOrMore & rankBit1);
+        int twoOrMore = this.twoOrMore | (this.ranks & rankBit1);
+        int ranks = this.ranks | rankBit1;
+
+        four |= threeOrMore & rankBit2;
+        threeOrMore |= twoOrMore & rankBit2;
+        twoOrMore |= ranks & rankBit2;
+        ranks |= rankBit2;
+
+        // only a suit with at least 3 board cards can make a flush
+        int flush = 0;
+        for (int suit = 0; suit < NUM_SUITS; suit++) {
+            int count = this.suitCounts[suit];
+            if (count >= 3) {
+                count += (suit1 == suit ? 1 : 0) + (suit2 == suit ? 1 : 0);
+                if (count >= 5) {
+                    flush = this.suitRanks[suit] | (suit1 == suit ? rankBit1 : 0) | (suit2 == suit ? rankBit2 : 0);
+                }
+            }
+        }
+
+        return BitmaskEvaluator.classify(ranks, twoOrMore, threeOrMore, four, flush);
+    }
+}
@@ -0,0 +1,241 @@
+package main;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import main.interfaces.CardSource;
+
+/**
+ * BufferedDeck class. A CardSource decorator that deals from batches of
+ * pre-generated deals. A background producer thread resets the wrapped source
+ * and draws the cards of each deal into a primitive batch, so the shuffling
+ * runs on the producer thread while the simulation thread evaluates hands.
+ *
+ * The deck is double buffered: the consumer reads one batch while the producer
+ * fills the other one. Each call to reset() moves to the next deal, which
+ * holds cardsPerDeal cards, e.g. 2 cards per player + 5 community cards. The
+ * deals are the same as the ones the wrapped source would deal on its own, so
+ * wrapping an IndexedDeck keeps its hands reproducible: the i-th deal is hand
+ * i (see getDealIndex()).
+ *
+ * Dead cards must be set on the wrapped source before it is wrapped, since the
+ * producer thread owns it. The deck must be closed to stop the producer, which
+ * runs on a daemon thread so a deck that is not closed does not keep the JVM
+ * alive.
+ */
+public class BufferedDeck implements CardSource, AutoCloseable {
+    public static final int DEFAULT_DEALS_PER_BATCH = 1 << 16;
+
+    private static final int[] FAILED = new int[0]; // sent by the producer when it stops
+
+    private final int cardsPerDeal;
+    private final int dealsPerBatch;
+    private final BlockingQueue<int[]> filledBatches = new ArrayBlockingQueue<>(3); // 2 batches + FAILED
+    private final BlockingQueue<int[]> freeBatches = new ArrayBlockingQueue<>(2);
+    private final Thread producer;
+    private volatile RuntimeException producerException;
+
+    private int[] batch; // batch being read, null before the first deal
+    private int dealStart; // index in the batch of the first card of the current deal
+    private int cardsLeft;
+    private long dealIndex = -1; // number of deals started - 1
+
+    // time spent waiting on the other side of the buffer
+    private long consumerWaitNanos;
+    private volatile long producerWaitNanos;
+
+    /**
+     * Constructor for BufferedDeck, with batches of DEFAULT_DEALS_PER_BATCH
+     * deals.
+     *
+     * @param source       Source to deal from, must not be used by anyone else
+     * @param cardsPerDeal Number of cards drawn per deal
+     */
+    public BufferedDeck(CardSource source, int cardsPerDeal) {
+        this(source, cardsPerDeal, DEFAULT_DEALS_PER_BATCH);
+    }
+
+    /**
+     * Constructor for BufferedDeck. Starts the producer thread.
+     *
+     * @param source        Source to deal from, must not be used by anyone else
+     * @param cardsPerDeal  Number of cards drawn per deal
+     * @param dealsPerBatch Number of deals in each batch
+     */
+    public BufferedDeck(CardSource source, int cardsPerDeal, int dealsPerBatch) {
+        if (cardsPerDeal < 1 || cardsPerDeal > 52)
+            throw new IllegalArgumentException("Invalid number of cards per deal: " + cardsPerDeal);
+        if (dealsPerBatch < 1)
+            throw new IllegalArgumentException("Invalid number of deals per batch: " + dealsPerBatch);
+
+        this.cardsPerDeal = cardsPerDeal;
+        this.dealsPerBatch = dealsPerBatch;
+        this.freeBatches.add(new int[cardsPerDeal * dealsPerBatch]);
+        this.freeBatches.add(new int[cardsPerDeal * dealsPerBatch]);
+
+        this.producer = new Thread(() -> this.produce(source), "BufferedDeck producer");
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    /**
+     * Fills free batches with deals until the deck is closed.
+     */
+    private void produce(CardSource source) {
+        try {
+            while (true) {
+                long start = System.nanoTime();
+                int[] batch = this.freeBatches.take();
+                this.producerWaitNanos += System.nanoTime() - start;
+
+                for (int offset = 0; offset < batch.length; offset += this.cardsPerDeal) {
+                    source.reset();
+                    source.draw(batch, offset, this.cardsPerDeal);
+                }
+                this.filledBatches.put(batch);
+            }
+        } catch (InterruptedException e) {
+            this.filledBatches.offer(FAILED); // closed
+        } catch (RuntimeException e) {
+            this.producerException = e;
+            this.filledBatches.offer(FAILED);
+        }
+    }
+
+    @Override
+    public Card draw() throws IllegalStateException {
+        return Card.fromId(this.drawId());
+    }
+
+    @Override
+    public int drawId() throws IllegalStateException {
+        if (this.cardsLeft == 0)
+            throw new IllegalStateException("Cannot draw from an empty deck");
+
+        return this.batch[this.dealStart + this.cardsPerDeal - this.cardsLeft--];
+    }
+
+    @Override
+    public void draw(int[] dest, int offset, int n) throws IllegalStateException {
+        if (n > this.cardsLeft)
+            throw new IllegalStateException("Cannot draw " + n + " cards, " + this.cardsLeft + " left");
+
+        System.arraycopy(this.batch, this.dealStart + this.cardsPerDeal - this.cardsLeft, dest, offset, n);
+        this.cardsLeft -= n;
+    }
+
+    /**
+     * Always fails: the producer thread owns the wrapped source, so its dead
+     * cards cannot be changed once it is wrapped.
+     *
+     * @throws IllegalStateException Always
+     */
+    @Override
+    public void setDeadCards(CardSet deadCards) throws IllegalStateException {
+        throw new IllegalStateException(
+                "Dead cards of a BufferedDeck must be set on the wrapped source before wrapping: " + deadCards);
+    }
+
+    @Override
+    public int cardsLeft() {
+        return this.cardsLeft;
+    }
+
+    /**
+     * Moves to the next deal, waiting for the producer if the current batch is
+     * used up.
+     *
+     * @throws IllegalStateException If the deck is closed, or the wrapped source
+     *                               failed to deal
+     */
+    @Override
+    public void reset() {
+        this.dealStart += this.cardsPerDeal;
+        if (this.batch == null || this.dealStart == this.batch.length) {
+            this.nextBatch();
+        }
+        this.cardsLeft = this.cardsPerDeal;
+        this.dealIndex++;
+    }
+
+    private void nextBatch() {
+        if (this.batch != null) {
+            this.freeBatches.add(this.batch);
+            this.batch = null;
+        }
+
+        int[] next;
+        long start = System.nanoTime();
+        try {
+            next = this.filledBatches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next batch", e);
+        }
+        this.consumerWaitNanos += System.nanoTime() - start;
+
+        if (next == FAILED) {
+            this.filledBatches.offer(FAILED); // fail the next calls too
+            if (this.producerException == null)
+                throw new IllegalStateException("Deck is closed");
+            throw new IllegalStateException("Source failed to deal", this.producerException);
+        }
+        this.batch = next;
+        this.dealStart = 0;
+    }
+
+    /**
+     * Returns the index of the current deal, counted from 0 since the deck was
+     * created.
+     *
+     * @return Index of the current deal, -1 before the first reset()
+     */
+    public long getDealIndex() {
+        return this.dealIndex;
+    }
+
+    public int getCardsPerDeal() {
+        return this.cardsPerDeal;
+    }
+
+    public int getDealsPerBatch() {
+        return this.dealsPerBatch;
+    }
+
+    /**
+     * Returns the time the consumer spent waiting for the producer to fill a
+     * batch. A large value means dealing is the bottleneck.
+     *
+     * @return Waiting time in nanoseconds
+     */
+    public long getConsumerWaitNanos() {
+        return this.consumerWaitNanos;
+    }
+
+    /**
+     * Returns the time the producer spent waiting for the consumer to free a
+     * batch. A large value means evaluating is the bottleneck.
+     *
+     * @return Waiting time in nanoseconds
+     */
+    public long getProducerWaitNanos() {
+        return this.producerWaitNanos;
+    }
+
+    /**
+     * Stops the producer thread. The deck cannot deal new batches afterwards.
+     */
+    @Override
+    public void close() {
+        this.producer.interrupt();
+    }
+
+    @Override
+    public String toString() {
+        return "BufferedDeck{" +
+                "deal=" + this.dealIndex +
+                ", cardsPerDeal=" + this.cardsPerDeal +
+                ", dealsPerBatch=" + this.dealsPerBatch +
+                '}';
+    }
+}
@@ -11,16 +11,21 @@ import java.util.Comparator;
 public class Card {
     // Static store of all cards that have been created.
     private static final Card[][] CARD_STORE = new Card[Suit.values().length][Rank.values().length];
+    // Same cards, indexed by id
+    private static final Card[] CARDS_BY_ID = new Card[Suit.values().length * Rank.values().length];
     static {
         for (Suit suit : Suit.values()) {
             for (Rank rank : Rank.values()) {
-                CARD_STORE[suit.ordinal()][rank.ordinal()] = new Card(rank, suit);
+                Card card = new Card(rank, suit);
+                CARD_STORE[suit.ordinal()][rank.ordinal()] = card;
+                CARDS_BY_ID[card.id] = card;
             }
         }
     }
 
     private Rank rank = null;
     private Suit suit = null;
+    private final int id; // suit * 13 + rank, see id()
 
     /**
      * Private constructor to prevent instantiation of Card objects. Use the static
@@ -32,6 +37,7 @@ public class Card {
     private Card(Rank rank, Suit suit) {
         this.rank = rank;
         this.suit = suit;
+        this.id = suit.ordinal() * Rank.values().length + rank.ordinal();
     }
 
     /**
@@ -48,6 +54,52 @@ public class Card {
         return CARD_STORE[suit.ordinal()][rank.ordinal()];
     }
 
+    /**
+     * Returns the card with the given id.
+     *
+     * @param id Id of the card (0-51)
+     * @return Card object for the given id
+     */
+    public static Card fromId(int id) {
+        return CARDS_BY_ID[id];
+    }
+
+    /**
+     * Returns the id of the card, suit.ordinal() * 13 + rank.ordinal(). Ids go
+     * from 0 to 51 and are the bit of the card in BitmaskEvaluator's masks.
+     *
+     * @return Id of the card
+     */
+    public int id() {
+        return this.id;
+    }
+
+    /**
+     * Parses a card written as its rank then its suit, e.g. "AS", "10H" (the
+     * format of toString()), "Th" or "2c". Letters can be in either case.
+     *
+     * @param s Text of the card
+     * @return Card written in the text
+     * @throws IllegalArgumentException If the text is not a card
+     */
+    public static Card parse(String s) {
+        String text = s.trim().toUpperCase();
+        if (text.length() >= 2) {
+            String rankText = text.substring(0, text.length() - 1);
+            String suitText = text.substring(text.length() - 1);
+            for (Rank rank : Rank.values()) {
+                if (rank.toString().equals(rankText) || (rank == Rank.TEN && rankText.equals("T"))) {
+                    for (Suit suit : Suit.values()) {
+                        if (suit.toString().equals(suitText)) {
+                            return get(rank, suit);
+                        }
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Not a card: " + s);
+    }
+
     @Override
     public String toString() {
         return this.rank.toString() + this.suit.toString();
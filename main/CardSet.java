@@ -0,0 +1,186 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable set of cards backed by a single long. Card c is stored in bit
+ * c.id(), which is the same layout as BitmaskEvaluator's masks (13 bits per
+ * suit), so a CardSet can be evaluated or passed around as a plain 8-byte
+ * value.
+ *
+ * The cards can be iterated without allocating:
+ * for (int id = set.first(); id >= 0; id = set.next(id)) { ... }
+ */
+public final class CardSet {
+    public static final CardSet EMPTY = new CardSet(0L);
+    public static final CardSet FULL_DECK = new CardSet((1L << 52) - 1);
+
+    private final long bits;
+
+    private CardSet(long bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Returns the set whose cards are the set bits of a mask.
+     *
+     * @param bits Mask with bit c.id() set for each card c
+     * @return CardSet for the mask
+     */
+    public static CardSet of(long bits) {
+        return new CardSet(bits);
+    }
+
+    /**
+     * Returns the set of the given cards.
+     *
+     * @param cards Cards in the set
+     * @return CardSet of the cards
+     */
+    public static CardSet of(Card... cards) {
+        long bits = 0;
+        for (Card card : cards) {
+            bits |= 1L << card.id();
+        }
+        return new CardSet(bits);
+    }
+
+    /**
+     * Parses a set of cards written one after the other, e.g. "AsKs", "10H 7c 2s"
+     * or "Td,9d". Each card is written as in Card.parse(), and the cards can be
+     * separated by spaces or commas. An empty text is the empty set.
+     *
+     * @param s Text of the cards
+     * @return CardSet of the cards
+     * @throws IllegalArgumentException If the text is not a list of distinct
+     *                                  cards
+     */
+    public static CardSet parse(String s) {
+        long bits = 0;
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == ' ' || c == ',') {
+                i++;
+                continue;
+            }
+            int length = s.startsWith("10", i) ? 3 : 2;
+            if (i + length > s.length())
+                throw new IllegalArgumentException("Not a list of cards: " + s);
+
+            Card card = Card.parse(s.substring(i, i + length));
+            if ((bits & 1L << card.id()) != 0)
+                throw new IllegalArgumentException("Duplicate card " + card + " in " + s);
+
+            bits |= 1L << card.id();
+            i += length;
+        }
+        return new CardSet(bits);
+    }
+
+    /**
+     * Returns the set of the given cards.
+     *
+     * @param cards Cards in the set
+     * @return CardSet of the cards
+     */
+    public static CardSet of(List<Card> cards) {
+        long bits = 0;
+        for (Card card : cards) {
+            bits |= 1L << card.id();
+        }
+        return new CardSet(bits);
+    }
+
+    /**
+     * Returns the mask of the set, with bit c.id() set for each card c.
+     */
+    public long bits() {
+        return this.bits;
+    }
+
+    public CardSet union(CardSet other) {
+        return new CardSet(this.bits | other.bits);
+    }
+
+    public CardSet add(Card card) {
+        return new CardSet(this.bits | 1L << card.id());
+    }
+
+    public CardSet remove(Card card) {
+        return new CardSet(this.bits & ~(1L << card.id()));
+    }
+
+    public CardSet removeAll(CardSet other) {
+        return new CardSet(this.bits & ~other.bits);
+    }
+
+    public boolean contains(Card card) {
+        return contains(card.id());
+    }
+
+    public boolean contains(int id) {
+        return (this.bits & 1L << id) != 0;
+    }
+
+    public boolean intersects(CardSet other) {
+        return (this.bits & other.bits) != 0;
+    }
+
+    public int size() {
+        return Long.bitCount(this.bits);
+    }
+
+    public boolean isEmpty() {
+        return this.bits == 0;
+    }
+
+    /**
+     * Returns the lowest card id in the set.
+     *
+     * @return Lowest card id, or -1 if the set is empty
+     */
+    public int first() {
+        return this.bits == 0 ? -1 : Long.numberOfTrailingZeros(this.bits);
+    }
+
+    /**
+     * Returns the lowest card id in the set that is greater than the given id.
+     *
+     * @param id Card id to start after
+     * @return Next card id, or -1 if there is none
+     */
+    public int next(int id) {
+        long remaining = id >= 63 ? 0 : this.bits & (-1L << (id + 1));
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Returns the cards of the set, by ascending id.
+     *
+     * @return List of the cards in the set
+     */
+    public ArrayList<Card> toList() {
+        ArrayList<Card> cards = new ArrayList<>(this.size());
+        for (int id = this.first(); id >= 0; id = this.next(id)) {
+            cards.add(Card.fromId(id));
+        }
+        return cards;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CardSet && ((CardSet) other).bits == this.bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.bits);
+    }
+
+    @Override
+    public String toString() {
+        return this.toList().toString();
+    }
+}
@@ -1,6 +1,8 @@
 package main;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import main.interfaces.CardSource;
 
@@ -12,6 +14,18 @@ public class Dealer {
     private final CardSource cardSource;
     private final ArrayList<Card> communityCards = new ArrayList<>();
     private final ArrayList<Player> players = new ArrayList<>();
+    private final List<Card> communityCardsView = Collections.unmodifiableList(this.communityCards);
+    private final List<Player> playersView = Collections.unmodifiableList(this.players);
+    private final int[] handCardIds = new int[7]; // scratch space for the showdown
+    private final BoardEvaluator boardEvaluator = new BoardEvaluator();
+
+    // cards that are dealt instead of random ones, see pinHoleCards() and pinBoard()
+    private final ArrayList<Card[]> pinnedHoleCards = new ArrayList<>(); // indexed by seat, null if not pinned
+    private final ArrayList<Card> pinnedBoard = new ArrayList<>();
+    private CardSet deadCards = CardSet.EMPTY; // cards that are never dealt, see setDeadCards()
+    private CardSet removedCards = CardSet.EMPTY; // pinned and dead cards last removed from the card source
+
+    private int[] dealtCardIds = new int[2 + 5]; // buffer for bulk draws, grows with the players
 
     /**
      * Constructor for Dealer.
@@ -45,6 +59,52 @@ public class Dealer {
         return new ArrayList<Card>(communityCards);
     }
 
+    /**
+     * Returns a read-only view of the players at the table, without copying the
+     * list. The view follows the table, so it must be copied to keep it.
+     * 
+     * @return Read-only list of players at the table
+     */
+    public List<Player> getPlayersView() {
+        return this.playersView;
+    }
+
+    /**
+     * Returns a read-only view of the community cards, without copying the list.
+     * The view follows the hand being dealt, so it must be copied to keep it.
+     * 
+     * @return Read-only list of community cards
+     */
+    public List<Card> getCommunityCardsView() {
+        return this.communityCardsView;
+    }
+
+    /**
+     * Returns the players at the seats of a seat mask, e.g. the mask returned by
+     * determineWinnerMask().
+     * 
+     * @param seatMask Mask with bit i set for the player at seat i
+     * @return List of the players at the seats
+     */
+    public ArrayList<Player> getPlayers(int seatMask) {
+        ArrayList<Player> players = new ArrayList<>(Integer.bitCount(seatMask));
+        for (int seat = 0; seat < this.players.size(); seat++) {
+            if ((seatMask & 1 << seat) != 0) {
+                players.add(this.players.get(seat));
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Returns the community cards as a CardSet, without copying the list.
+     * 
+     * @return Set of community cards
+     */
+    public CardSet getCommunityCardSet() {
+        return CardSet.of(this.communityCards);
+    }
+
     /**
      * Adds a player to the list of players.
      *
@@ -55,14 +115,214 @@ public class Dealer {
     }
 
     /**
-     * Deals 2 cards to all players.
+     * Pins the hole cards of a seat: the player at that seat is dealt these
+     * cards on every hand, and they are removed from the card source so no
+     * other player or street can be dealt them. Takes effect at the next
+     * shuffle().
+     * 
+     * @param seat  Index of the player in the list of players
+     * @param card1 First hole card
+     * @param card2 Second hole card
+     * @throws IllegalArgumentException If a card is already pinned
+     * @throws IllegalStateException    If the card source cannot leave out the
+     *                                  cards, the seat is then left as it was
+     */
+    public void pinHoleCards(int seat, Card card1, Card card2) {
+        if (seat < 0)
+            throw new IllegalArgumentException("Invalid seat: " + seat);
+
+        while (this.pinnedHoleCards.size() <= seat) {
+            this.pinnedHoleCards.add(null);
+        }
+        Card[] previous = this.pinnedHoleCards.set(seat, null);
+        CardSet pinned = this.getPinnedCards().union(this.deadCards);
+        if (card1 == card2 || pinned.contains(card1) || pinned.contains(card2)) {
+            this.pinnedHoleCards.set(seat, previous);
+            throw new IllegalArgumentException("Card is already pinned or dead: " + card1 + ", " + card2);
+        }
+
+        this.pinnedHoleCards.set(seat, new Card[] { card1, card2 });
+        try {
+            this.updateDeadCards();
+        } catch (IllegalStateException e) {
+            this.pinnedHoleCards.set(seat, previous);
+            throw e;
+        }
+    }
+
+    /**
+     * Pins the first community cards, e.g. 3 cards to fix the flop. The pinned
+     * cards are dealt first, in order, and the remaining streets are random.
+     * Replaces the previously pinned board. Takes effect at the next shuffle().
+     * 
+     * @param cards Community cards to pin, at most 5
+     * @throws IllegalArgumentException If there are more than 5 cards or a card
+     *                                  is already pinned
+     * @throws IllegalStateException    If the card source cannot leave out the
+     *                                  cards, the board is then left as it was
+     */
+    public void pinBoard(Card... cards) {
+        if (cards.length > 5)
+            throw new IllegalArgumentException("The board has at most 5 cards");
+
+        List<Card> previous = new ArrayList<>(this.pinnedBoard);
+        this.pinnedBoard.clear();
+        CardSet pinned = this.getPinnedCards().union(this.deadCards);
+        for (Card card : cards) {
+            if (pinned.contains(card)) {
+                this.pinnedBoard.clear();
+                throw new IllegalArgumentException("Card is already pinned or dead: " + card);
+            }
+            pinned = pinned.add(card);
+            this.pinnedBoard.add(card);
+        }
+        try {
+            this.updateDeadCards();
+        } catch (IllegalStateException e) {
+            this.pinnedBoard.clear();
+            this.pinnedBoard.addAll(previous);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes all pinned hole cards and community cards. The dead cards stay
+     * dead. Takes effect at the next shuffle().
+     */
+    public void clearPins() {
+        this.pinnedHoleCards.clear();
+        this.pinnedBoard.clear();
+        this.updateDeadCards();
+    }
+
+    /**
+     * Sets the cards that are never dealt, e.g. cards that were seen or folded.
+     * Replaces the previous dead cards. Takes effect at the next shuffle().
+     *
+     * @param deadCards Cards that are out of the deck
+     * @throws IllegalArgumentException If a card is pinned
+     * @throws IllegalStateException    If the card source cannot leave out the
+     *                                  cards, the dead cards are then left as
+     *                                  they were
+     */
+    public void setDeadCards(CardSet deadCards) {
+        if (deadCards.intersects(this.getPinnedCards()))
+            throw new IllegalArgumentException("Pinned cards cannot be dead: " + deadCards);
+
+        CardSet previous = this.deadCards;
+        this.deadCards = deadCards;
+        try {
+            this.updateDeadCards();
+        } catch (IllegalStateException e) {
+            this.deadCards = previous;
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the pinned cards and the dead cards from the card source. The
+     * source is left alone if they did not change, so that a source that cannot
+     * change its dead cards, e.g. a BufferedDeck, works as long as nothing is
+     * pinned or dead.
+     */
+    private void updateDeadCards() {
+        CardSet removed = this.getPinnedCards().union(this.deadCards);
+        if (!removed.equals(this.removedCards)) {
+            this.cardSource.setDeadCards(removed);
+            this.removedCards = removed;
+        }
+    }
+
+    /**
+     * Returns the set of all pinned hole cards and community cards.
+     * 
+     * @return Set of pinned cards
+     */
+    public CardSet getPinnedCards() {
+        CardSet pinned = CardSet.of(this.pinnedBoard);
+        for (Card[] holeCards : this.pinnedHoleCards) {
+            if (holeCards != null) {
+                pinned = pinned.union(CardSet.of(holeCards));
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Deals 2 cards to all players. Seats with pinned hole cards are dealt their
+     * pinned cards.
      */
     public void deal() {
-        for (Player player : this.players) {
-            player.dealCards(this.cardSource.draw(), this.cardSource.draw());
+        this.drawCards(this.countRandomHoleCards());
+        this.dealHoleCards(0);
+    }
+
+    /**
+     * Shuffles the deck and deals a whole hand: 2 cards to all players and the 5
+     * community cards. Every random card of the hand is taken from the card
+     * source with a single bulk draw, in the same order as shuffle(), deal(),
+     * dealFlop(), dealTurn() and dealRiver() would draw them.
+     */
+    public void dealHand() {
+        this.shuffle();
+
+        int numRandomBoardCards = 5 - this.pinnedBoard.size();
+        this.drawCards(this.countRandomHoleCards() + numRandomBoardCards);
+
+        int next = this.dealHoleCards(0);
+        for (int i = 0; i < 5; i++) {
+            if (i < this.pinnedBoard.size()) {
+                this.communityCards.add(this.pinnedBoard.get(i));
+            } else {
+                this.communityCards.add(Card.fromId(this.dealtCardIds[next++]));
+            }
         }
     }
 
+    /**
+     * Draws n cards from the card source into dealtCardIds.
+     */
+    private void drawCards(int n) {
+        if (this.dealtCardIds.length < n) {
+            this.dealtCardIds = new int[n];
+        }
+        this.cardSource.draw(this.dealtCardIds, 0, n);
+    }
+
+    private int countRandomHoleCards() {
+        int n = 0;
+        for (int seat = 0; seat < this.players.size(); seat++) {
+            if (this.getPinnedHoleCards(seat) == null) {
+                n += 2;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Deals 2 cards to all players, taking the random cards from dealtCardIds.
+     * 
+     * @param next Index in dealtCardIds of the first random card
+     * @return Index in dealtCardIds of the first card not dealt
+     */
+    private int dealHoleCards(int next) {
+        for (int seat = 0; seat < this.players.size(); seat++) {
+            Card[] pinned = this.getPinnedHoleCards(seat);
+            if (pinned != null) {
+                this.players.get(seat).dealCards(pinned[0], pinned[1]);
+            } else {
+                this.players.get(seat).dealCards(Card.fromId(this.dealtCardIds[next]),
+                        Card.fromId(this.dealtCardIds[next + 1]));
+                next += 2;
+            }
+        }
+        return next;
+    }
+
+    private Card[] getPinnedHoleCards(int seat) {
+        return seat < this.pinnedHoleCards.size() ? this.pinnedHoleCards.get(seat) : null;
+    }
+
     /**
      * Shuffles the deck and clears the community cards.
      */
@@ -72,14 +332,21 @@ public class Dealer {
     }
 
     /**
-     * Deals n community cards.
+     * Deals n community cards, pinned cards first.
      * 
      * @param n Number of community cards to deal
      * @return List of community cards
      */
     private ArrayList<Card> dealCommunityCards(int n) {
+        int numPinned = Math.max(0, Math.min(n, this.pinnedBoard.size() - this.communityCards.size()));
+        this.drawCards(n - numPinned);
+
         for (int i = 0; i < n; i++) {
-            this.communityCards.add(this.cardSource.draw());
+            if (i < numPinned) {
+                this.communityCards.add(this.pinnedBoard.get(this.communityCards.size()));
+            } else {
+                this.communityCards.add(Card.fromId(this.dealtCardIds[i - numPinned]));
+            }
         }
         return new ArrayList<Card>(communityCards);
     }
@@ -112,65 +379,60 @@ public class Dealer {
     }
 
     /**
-     * Determines the winner of the hand.
+     * Determines the winner of the hand, see determineWinnerMask().
      *
      * @return List of players that won
      */
     public ArrayList<Player> determineWinner() {
-        ArrayList<Player> winners = new ArrayList<>();
-        HandRank winningHandRank = HandRank.HIGH_CARD;
+        return this.getPlayers(this.determineWinnerMask());
+    }
 
-        // Determine the winning hand rank & the winner(s)
-        for (Player player : this.players) {
-            ArrayList<Card> allCards = new ArrayList<>(this.communityCards);
-            allCards.addAll(player.getCards());
+    /**
+     * Determines the winner of the hand. Hands are compared by their packed
+     * strength, so ties on the hand rank are broken in the same pass. The
+     * community cards are evaluated once, then each player only adds their 2
+     * hole cards to them. The showdown reuses the dealer's buffers and does not
+     * allocate.
+     *
+     * @return Mask with bit i set if the player at seat i won
+     * @throws IllegalStateException If there are more than 32 players
+     */
+    public int determineWinnerMask() {
+        if (this.players.size() > Integer.SIZE)
+            throw new IllegalStateException("Too many players for a seat mask: " + this.players.size());
 
-            HandRankEvaluator evaluator = new HandRankEvaluator(allCards);
-            Hand playerHand = evaluator.evaluate();
-            player.setHand(playerHand);
+        int winners = 0;
+        int winningStrength = -1;
 
-            // If the player's hand rank is better than the current winning hand rank,
-            // then the player is the new winner
-            if (playerHand.getHandRank().ordinal() > winningHandRank.ordinal()) {
-                winners.clear();
-                winners.add(player);
-                winningHandRank = playerHand.getHandRank();
-            }
-            // If the player's hand rank is the same as the current winning hand rank,
-            // then the player is potentially a winner --> need to compare the hands
-            else if (playerHand.getHandRank() == winningHandRank) {
-                winners.add(player);
-            }
+        int numCommunityCards = this.communityCards.size();
+        for (int i = 0; i < numCommunityCards; i++) {
+            this.handCardIds[i] = this.communityCards.get(i).id();
         }
+        this.boardEvaluator.setBoard(this.handCardIds, 0, numCommunityCards);
 
-        return breakTie(winners);
-    }
+        for (int seat = 0; seat < this.players.size(); seat++) {
+            Player player = this.players.get(seat);
+            int holeCard1 = player.getCard(0).id();
+            int holeCard2 = player.getCard(1).id();
+            this.handCardIds[numCommunityCards] = holeCard1;
+            this.handCardIds[numCommunityCards + 1] = holeCard2;
 
-    /**
-     * Breaks a tie between players who have the same hand rank.
-     * 
-     * @param players List of players who have the same hand rank
-     * @return List of players who won
-     */
-    private static ArrayList<Player> breakTie(ArrayList<Player> players) {
-        if (players.size() == 1) {
-            return players;
-        }
-
-        // Multiple players have the same hand rank --> need to break the tie
-        // based on the Hand's score
-        int maxScore = 0;
-        ArrayList<Player> winners = new ArrayList<>();
-        for (Player player : players) {
-            int currScore = player.getHand().getScore();
-            if (currScore > maxScore) {
-                winners.clear();
-                winners.add(player);
-                maxScore = currScore;
-            } else if (currScore == maxScore) {
-                winners.add(player);
+            // Only the strength is computed, the Hand is built if it is logged
+            int strength = this.boardEvaluator.evaluate(holeCard1, holeCard2);
+            player.setHand(strength, this.handCardIds, 0, numCommunityCards + 2);
+
+            // If the player's hand is better than the current winning hand,
+            // then the player is the new winner
+            if (strength > winningStrength) {
+                winners = 1 << seat;
+                winningStrength = strength;
+            }
+            // If the player's hand is as strong as the winning hand, it is a tie
+            else if (strength == winningStrength) {
+                winners |= 1 << seat;
             }
         }
+
         return winners;
     }
 
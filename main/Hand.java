@@ -3,63 +3,120 @@ package main;
 import java.util.ArrayList;
 
 /**
- * Represents a hand of cards, which contains the player's best 5-card hand,
- * the rank of the hand, and the score for tie-breaking.
+ * Represents a hand of cards by its packed HandStrength and the ids of the (up
+ * to 7) cards it was made from. The rank and the tie-breaking score of the
+ * hand are read from the strength, and the player's best 5-card hand is only
+ * worked out from the card ids when it is first requested, e.g. to log the
+ * hand.
  */
 public class Hand {
-    private ArrayList<Card> bestHand; // best 5-card hand
-    private HandRank handRank; // rank of hand
-    private int score = 0; // score of hand, used for tie-breaking
+    private int strength; // packed strength of hand, see HandStrength
+    private final int[] cardIds = new int[7]; // ids of the cards the hand is made from
+    private int numCards;
+    private ArrayList<Card> bestHand; // best 5-card hand, null until it is requested
 
     /**
-     * Constructor for Hand with score.
-     * 
+     * Constructor for Hand. The tie-breaking score is derived from the best hand
+     * (see HandStrength.of()), so it cannot be set.
+     *
      * @param handRank Rank of hand
      * @param bestHand Best 5-card hand
-     * @param score    Score of hand, used for tie-breaking, higher score wins
      */
-    public Hand(HandRank handRank, ArrayList<Card> bestHand, int score) {
-        this.handRank = handRank;
+    public Hand(HandRank handRank, ArrayList<Card> bestHand) {
+        this.strength = HandStrength.of(handRank, bestHand);
+        for (Card card : bestHand) {
+            this.cardIds[this.numCards++] = card.id();
+        }
         this.bestHand = new ArrayList<>(bestHand);
-        this.score = score;
+    }
+
+    /**
+     * Constructor for a Hand whose best 5 cards are worked out when they are
+     * first requested.
+     *
+     * @param strength Strength of the hand, see HandStrength
+     * @param cardIds  Array holding the ids of the cards the hand is made from
+     * @param offset   Index of the first card in the array
+     * @param length   Number of cards, 5 to 7
+     */
+    public Hand(int strength, int[] cardIds, int offset, int length) {
+        this.set(strength, cardIds, offset, length);
+    }
+
+    /**
+     * Constructor for an empty Hand, to be set by its Player.
+     */
+    Hand() {
+        this.strength = -1;
     }
 
     /**
      * Copy constructor for Hand.
-     * 
+     *
      * @param hand Hand to copy
      */
     public Hand(Hand hand) {
-        this.handRank = hand.getHandRank();
-        this.bestHand = hand.getBestHand();
-        this.score = hand.getScore();
+        this.set(hand);
+    }
+
+    /**
+     * Replaces the hand, so a Player can reuse its Hand for every deal.
+     */
+    final void set(int strength, int[] cardIds, int offset, int length) {
+        this.strength = strength;
+        System.arraycopy(cardIds, offset, this.cardIds, 0, length);
+        this.numCards = length;
+        this.bestHand = null;
     }
 
-    public void setScore(int score) {
-        this.score = score;
+    /**
+     * Replaces the hand with a copy of another hand.
+     */
+    final void set(Hand hand) {
+        this.strength = hand.strength;
+        System.arraycopy(hand.cardIds, 0, this.cardIds, 0, hand.numCards);
+        this.numCards = hand.numCards;
+        this.bestHand = hand.bestHand; // never modified once built
     }
 
     public HandRank getHandRank() {
-        return this.handRank;
+        return HandStrength.getHandRank(this.strength);
     }
 
     public ArrayList<Card> getBestHand() {
-        return new ArrayList<>(this.bestHand);
+        return new ArrayList<>(this.bestFiveCards());
     }
 
     public int getScore() {
-        return this.score;
+        return HandStrength.getScore(this.strength);
+    }
+
+    /**
+     * Returns the packed strength of the hand. Comparing the strengths of two
+     * hands compares both their hand rank and their tie-breaking cards.
+     *
+     * @return Strength of the hand, higher strength wins
+     */
+    public int getStrength() {
+        return this.strength;
+    }
+
+    private ArrayList<Card> bestFiveCards() {
+        if (this.bestHand == null) {
+            this.bestHand = HandRankEvaluator.findBestHand(this.strength, this.cardIds, 0, this.numCards);
+        }
+        return this.bestHand;
     }
 
     @Override
     public String toString() {
         String str = "[";
-        for (Card card : this.bestHand) {
+        for (Card card : this.bestFiveCards()) {
             str += card.toString() + " ";
         }
         str = str.substring(0, str.length() - 1); // remove last space
         str += "] ";
-        str += this.handRank.toString();
+        str += this.getHandRank().toString();
         return str;
     }
 }
@@ -71,6 +71,108 @@ public class HandRankEvaluator {
         return hand;
     }
 
+    /**
+     * Evaluates a hand given as card ids, without allocating. Only the strength
+     * of the hand is computed, buildHand() recovers the best 5 cards from it
+     * when they are needed.
+     *
+     * @param cardIds Array holding the ids of the cards (see Card.id())
+     * @param offset  Index of the first card in the array
+     * @param length  Number of cards, 5 to 7
+     * @return Strength of the hand, see HandStrength
+     */
+    public static int evaluate(int[] cardIds, int offset, int length) {
+        long cards = 0;
+        for (int i = offset; i < offset + length; i++) {
+            cards |= 1L << cardIds[i];
+        }
+        return BitmaskEvaluator.evaluate(cards);
+    }
+
+    /**
+     * Evaluates a set of cards, without allocating.
+     *
+     * @param cards Set of 5 to 7 cards
+     * @return Strength of the hand, see HandStrength
+     */
+    public static int evaluate(CardSet cards) {
+        return BitmaskEvaluator.evaluate(cards.bits());
+    }
+
+    /**
+     * Builds the Hand for a strength returned by evaluate(int[], int, int). The
+     * cards that make up the best 5-card hand are picked when the Hand is first
+     * asked for them.
+     *
+     * @param strength Strength of the hand
+     * @param cardIds  Array holding the ids of the cards (see Card.id())
+     * @param offset   Index of the first card in the array
+     * @param length   Number of cards, 5 to 7
+     * @return Hand object for the strength
+     */
+    public static Hand buildHand(int strength, int[] cardIds, int offset, int length) {
+        return new Hand(strength, cardIds, offset, length);
+    }
+
+    /**
+     * Picks the cards that make up the best 5-card hand of a strength returned
+     * by evaluate(int[], int, int).
+     *
+     * @param strength Strength of the hand
+     * @param cardIds  Array holding the ids of the cards (see Card.id())
+     * @param offset   Index of the first card in the array
+     * @param length   Number of cards, 5 to 7
+     * @return Best 5 cards, ordered as in the Hand built by evaluate()
+     */
+    static ArrayList<Card> findBestHand(int strength, int[] cardIds, int offset, int length) {
+        ArrayList<Card> cards = new ArrayList<>();
+        for (int i = offset; i < offset + length; i++) {
+            cards.add(Card.fromId(cardIds[i]));
+        }
+        cards.sort(Card.sortByRankComparatorDESC);
+
+        HandRank handRank = HandStrength.getHandRank(strength);
+        Suit flushSuit = null;
+        if (handRank == HandRank.FLUSH || handRank == HandRank.STRAIGHT_FLUSH || handRank == HandRank.ROYAL_FLUSH) {
+            HashMap<Suit, Integer> suitCounts = getSuitCounts(cards);
+            for (Suit suit : suitCounts.keySet()) {
+                if (suitCounts.get(suit) >= 5) {
+                    flushSuit = suit;
+                }
+            }
+        }
+
+        ArrayList<Card> best5Cards = new ArrayList<>();
+        if (handRank == HandRank.STRAIGHT || handRank == HandRank.STRAIGHT_FLUSH || handRank == HandRank.ROYAL_FLUSH) {
+            int highestRank = HandStrength.getTieBreaker(strength, 0);
+            for (int i = 0; i < 5; i++) {
+                int rank = (highestRank - i + Rank.values().length) % Rank.values().length; // ace below the two
+                addCards(cards, best5Cards, Rank.values()[rank], flushSuit, 1);
+            }
+        } else {
+            int[] groupSizes = HandStrength.GROUP_SIZES[handRank.ordinal()];
+            for (int i = 0; i < groupSizes.length; i++) {
+                Rank rank = Rank.values()[HandStrength.getTieBreaker(strength, i)];
+                addCards(cards, best5Cards, rank, flushSuit, groupSizes[i]);
+            }
+        }
+
+        return best5Cards;
+    }
+
+    /**
+     * Adds the first n cards of the given rank (and suit, if not null) to the best
+     * 5 cards.
+     */
+    private static void addCards(List<Card> cards, ArrayList<Card> best5Cards, Rank rank, Suit suit, int n) {
+        for (Card card : cards) {
+            if (n > 0 && card.getRank() == rank && (suit == null || card.getSuit() == suit)) {
+                best5Cards.add(card);
+                n--;
+            }
+        }
+    }
+
     /**
      * Generates a HashMap that contains the number of times each rank appears in
      * the list of cards.
@@ -137,36 +239,15 @@ public class HandRankEvaluator {
             Rank highestRank = lowestHighestRank[1];
             // differentiate between a straight flush and a royal flush
             if (highestRank == Rank.ACE && lowestRank == Rank.TEN) {
-                return new Hand(HandRank.ROYAL_FLUSH, straightFlushCards, getStraightScore(straightFlushCards));
+                return new Hand(HandRank.ROYAL_FLUSH, straightFlushCards);
             } else {
-                return new Hand(HandRank.STRAIGHT_FLUSH, straightFlushCards, getStraightScore(straightFlushCards));
+                return new Hand(HandRank.STRAIGHT_FLUSH, straightFlushCards);
             }
         }
 
         return null;
     }
 
-    /**
-     * Gets the score for a straight by getting the highest rank in the straight.
-     * 
-     * @pre the cards form a straight
-     * @param cards list of 5 cards that form a straight
-     * @return score for the straight
-     */
-    private static int getStraightScore(ArrayList<Card> cards) {
-        Rank[] lowestHighestRank = Utils.getLowestHighestRank(cards);
-        Rank lowestRank = lowestHighestRank[0];
-        Rank highestRank = lowestHighestRank[1];
-
-        int score = highestRank.ordinal();
-
-        // check if the straight is a wheel (A2345)
-        if (highestRank == Rank.ACE && lowestRank == Rank.TWO) {
-            score = Rank.FIVE.ordinal();
-        }
-        return score;
-    }
-
     /**
      * Checks if the hand has a four of a kind.
      * 
@@ -181,33 +262,16 @@ public class HandRankEvaluator {
 
         ArrayList<Card> best5Cards = new ArrayList<>();
         int numKickers = 1;
-        Rank fourOfAKindRank = null;
-        Rank kickerRank = null;
         for (Card card : this.cards) {
             if (this.rankCounts.get(card.getRank()) == 4) {
                 best5Cards.add(card);
-                fourOfAKindRank = card.getRank();
             } else if (numKickers > 0) {
                 best5Cards.add(card);
-                kickerRank = card.getRank();
                 numKickers--;
             }
         }
 
-        return new Hand(HandRank.FOUR_OF_A_KIND, best5Cards, getFourOfAKindScore(fourOfAKindRank, kickerRank));
-    }
-
-    /**
-     * Gets the score for a four of a kind by multiplying the rank of the four of a
-     * kind by 100 and adding the rank of the kicker.
-     * 
-     * @param fourOfAKindRank rank of the four of a kind
-     * @param kickerRank      rank of the kicker
-     * @return score for the four of a kind
-     */
-    private static int getFourOfAKindScore(Rank fourOfAKindRank, Rank kickerRank) {
-        int score = fourOfAKindRank.ordinal() * 100 + kickerRank.ordinal();
-        return score;
+        return new Hand(HandRank.FOUR_OF_A_KIND, best5Cards);
     }
 
     /**
@@ -263,20 +327,7 @@ public class HandRankEvaluator {
             }
         }
 
-        return new Hand(HandRank.FULL_HOUSE, best5Cards, getFullHouseScore(threeOfAKindRank, twoOfAKindRank));
-    }
-
-    /**
-     * Gets the score for a full house by multiplying the rank of the three of a
-     * kind by 100 and adding the rank of the two of a kind.
-     * 
-     * @param threeOfAKindRank rank of the three of a kind
-     * @param twoOfAKindRank   rank of the two of a kind
-     * @return score for the full house
-     */
-    private static int getFullHouseScore(Rank threeOfAKindRank, Rank twoOfAKindRank) {
-        int score = threeOfAKindRank.ordinal() * 100 + twoOfAKindRank.ordinal();
-        return score;
+        return new Hand(HandRank.FULL_HOUSE, best5Cards);
     }
 
     /**
@@ -302,24 +353,7 @@ public class HandRankEvaluator {
             }
         }
 
-        return new Hand(HandRank.FLUSH, best5Cards, getFlushScore(best5Cards));
-    }
-
-    /**
-     * Gets the score for a flush by multiplying the rank of each card by 100 raised
-     * to the power of the card's index in the hand (sorted by rank ASC).
-     * 
-     * @pre the cards form a flush
-     * @param cards cards in the flush
-     * @return score for the flush
-     */
-    private static int getFlushScore(ArrayList<Card> cards) {
-        cards.sort(Card.sortByRankComparatorASC);
-        int score = 0;
-        for (int i = 0; i < cards.size(); i++) {
-            score += cards.get(i).getRank().ordinal() * Math.pow(100, i);
-        }
-        return score;
+        return new Hand(HandRank.FLUSH, best5Cards);
     }
 
     /**
@@ -332,7 +366,7 @@ public class HandRankEvaluator {
     private Hand getStraight() {
         ArrayList<Card> best5Cards = get5ConsecutiveCards(this.cards);
         if (best5Cards != null) {
-            return new Hand(HandRank.STRAIGHT, best5Cards, getStraightScore(best5Cards));
+            return new Hand(HandRank.STRAIGHT, best5Cards);
         }
 
         return null;
@@ -377,29 +411,7 @@ public class HandRankEvaluator {
             }
         }
 
-        return new Hand(HandRank.THREE_OF_A_KIND, best5Cards, getThreeOfAKindScore(threeOfAKindRank, best5Cards));
-    }
-
-    /**
-     * Gets the score for a three of a kind by multiplying the rank of the three of
-     * a kind by 100^2 and adding the rank of the kickers weighted by their ASC
-     * position.
-     * 
-     * @pre the cards form a three of a kind w/ 2 kickers
-     * @param threeOfAKindRank rank of the three of a kind
-     * @param best5Cards       best 5 cards in the hand
-     * @return score for the three of a kind
-     */
-    private static int getThreeOfAKindScore(Rank threeOfAKindRank, ArrayList<Card> best5Cards) {
-        best5Cards.sort(Card.sortByRankComparatorASC);
-        int score = threeOfAKindRank.ordinal() * (int) Math.pow(100, 2);
-        for (int i = 0, j = 0; i < best5Cards.size(); i++) {
-            if (best5Cards.get(i).getRank() != threeOfAKindRank) {
-                score += best5Cards.get(i).getRank().ordinal() * Math.pow(100, j);
-                j++;
-            }
-        }
-        return score;
+        return new Hand(HandRank.THREE_OF_A_KIND, best5Cards);
     }
 
     /**
@@ -427,8 +439,6 @@ public class HandRankEvaluator {
 
         // get the highest 2 pairs and the best kicker
         ArrayList<Card> best5Cards = new ArrayList<>();
-        Rank primaryPairRank = null;
-        Rank secondaryPairRank = null;
         Rank kickerRank = null;
         for (Card card : this.cards) {
             if (best5Cards.size() == 4) {
@@ -440,38 +450,13 @@ public class HandRankEvaluator {
 
             if (this.rankCounts.get(card.getRank()) == 2) {
                 best5Cards.add(card);
-                Rank currRank = card.getRank();
-
-                if (primaryPairRank == null)
-                    primaryPairRank = currRank;
-                else if (secondaryPairRank == null && currRank != primaryPairRank)
-                    secondaryPairRank = currRank;
-
             } else if (kickerRank == null) {
                 best5Cards.add(card);
                 kickerRank = card.getRank();
             }
         }
 
-        return new Hand(HandRank.TWO_PAIR, best5Cards, getTwoPairScore(primaryPairRank, secondaryPairRank, kickerRank));
-    }
-
-    /**
-     * Gets the score for a two pair by multiplying the rank of the primary pair by
-     * 100^2, the rank of the secondary pair by 100^1, and the rank of the kicker by
-     * 100^0.
-     * 
-     * @pre the cards form a two pair w/ 1 kicker
-     * @param primaryPairRank   rank of the primary pair (higher rank)
-     * @param secondaryPairRank rank of the secondary pair (lower rank)
-     * @param kickerRank        rank of the kicker
-     * @return score for the two pair
-     */
-    private static int getTwoPairScore(Rank primaryPairRank, Rank secondaryPairRank, Rank kickerRank) {
-        int score = primaryPairRank.ordinal() * (int) Math.pow(100, 2);
-        score += secondaryPairRank.ordinal() * (int) Math.pow(100, 1);
-        score += kickerRank.ordinal() * (int) Math.pow(100, 0);
-        return score;
+        return new Hand(HandRank.TWO_PAIR, best5Cards);
     }
 
     /**
@@ -513,27 +498,7 @@ public class HandRankEvaluator {
             }
         }
 
-        return new Hand(HandRank.PAIR, best5Cards, getPairScore(pairRank, best5Cards));
-    }
-
-    /**
-     * Gets the score for a pair by multiplying the rank of the pair by 100^3 and
-     * adding the rank of the kickers weighted by their ASC position.
-     * 
-     * @param pairRank   rank of the pair
-     * @param best5Cards best 5 cards in the hand (pair + 3 kickers)
-     * @return score for the pair
-     */
-    private static int getPairScore(Rank pairRank, ArrayList<Card> best5Cards) {
-        best5Cards.sort(Card.sortByRankComparatorASC);
-        int score = pairRank.ordinal() * (int) Math.pow(100, 3);
-        for (int i = 0, j = 0; i < best5Cards.size(); i++) {
-            if (best5Cards.get(i).getRank() != pairRank) {
-                score += best5Cards.get(i).getRank().ordinal() * Math.pow(100, j);
-                j++;
-            }
-        }
-        return score;
+        return new Hand(HandRank.PAIR, best5Cards);
     }
 
     /**
@@ -547,23 +512,7 @@ public class HandRankEvaluator {
         for (int i = 0; i < 5; i++) {
             best5Cards.add(this.cards.get(i));
         }
-        return new Hand(HandRank.HIGH_CARD, best5Cards, getHighCardScore(best5Cards));
-    }
-
-    /**
-     * Gets the score for a high card by adding the rank of the cards weighted by
-     * their ASC position.
-     * 
-     * @param best5Cards best 5 cards in the hand
-     * @return score for the high card
-     */
-    private int getHighCardScore(ArrayList<Card> best5Cards) {
-        best5Cards.sort(Card.sortByRankComparatorASC);
-        int score = 0;
-        for (int i = 0; i < best5Cards.size(); i++) {
-            score += best5Cards.get(i).getRank().ordinal() * Math.pow(100, i);
-        }
-        return score;
+        return new Hand(HandRank.HIGH_CARD, best5Cards);
     }
 
     /**
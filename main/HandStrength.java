@@ -0,0 +1,122 @@
+package main;
+
+import java.util.List;
+
+/**
+ * Packed hand strength shared by all evaluators. The strength of a hand is a
+ * single int that totally orders hands: a higher strength wins and an equal
+ * strength is a tie, so comparing two hands is a single integer compare.
+ *
+ * The HandRank ordinal is stored in bits 20-23. The ranks that break ties are
+ * stored below it, one nibble each from the most significant (bits 16-19) to
+ * the least significant (bits 0-3), e.g. the rank of the pair followed by the
+ * 3 kickers. Straights only store their highest rank (five for the wheel).
+ */
+public class HandStrength {
+    private static final int HAND_RANK_SHIFT = 20;
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final HandRank[] HAND_RANKS = HandRank.values();
+
+    // Number of cards of each tie-breaking rank, indexed by HandRank ordinal.
+    // Straights only store their highest rank.
+    static final int[][] GROUP_SIZES = {
+            { 1, 1, 1, 1, 1 }, // HIGH_CARD
+            { 2, 1, 1, 1 }, // PAIR
+            { 2, 2, 1 }, // TWO_PAIR
+            { 3, 1, 1 }, // THREE_OF_A_KIND
+            { 1 }, // STRAIGHT
+            { 1, 1, 1, 1, 1 }, // FLUSH
+            { 3, 2 }, // FULL_HOUSE
+            { 4, 1 }, // FOUR_OF_A_KIND
+            { 1 }, // STRAIGHT_FLUSH
+            { 1 }, // ROYAL_FLUSH
+    };
+
+    /**
+     * Packs a hand rank and its tie-breaking ranks into a strength.
+     *
+     * @param handRank    Rank of the hand
+     * @param tieBreakers Tie-breaking ranks, one nibble each, starting at bit 16
+     * @return Strength of the hand
+     */
+    public static int pack(HandRank handRank, int tieBreakers) {
+        return handRank.ordinal() << HAND_RANK_SHIFT | tieBreakers;
+    }
+
+    /**
+     * Computes the strength of a best 5-card hand.
+     *
+     * @param handRank Rank of the hand
+     * @param bestHand Best 5-card hand
+     * @return Strength of the hand
+     */
+    public static int of(HandRank handRank, List<Card> bestHand) {
+        int[] rankCounts = new int[NUM_RANKS];
+        for (Card card : bestHand) {
+            rankCounts[card.getRank().ordinal()]++;
+        }
+
+        if (handRank == HandRank.STRAIGHT || handRank == HandRank.STRAIGHT_FLUSH
+                || handRank == HandRank.ROYAL_FLUSH) {
+            int highestRank = Rank.ACE.ordinal();
+            while (rankCounts[highestRank] == 0) {
+                highestRank--;
+            }
+            // the wheel (A2345) is a five-high straight
+            if (highestRank == Rank.ACE.ordinal() && rankCounts[Rank.TWO.ordinal()] > 0) {
+                highestRank = Rank.FIVE.ordinal();
+            }
+            return pack(handRank, highestRank << 16);
+        }
+
+        // the most repeated ranks first, then the highest ranks first
+        int tieBreakers = 0;
+        int shift = 16;
+        for (int count = 4; count > 0; count--) {
+            for (int rank = NUM_RANKS - 1; rank >= 0; rank--) {
+                if (rankCounts[rank] == count) {
+                    tieBreakers |= rank << shift;
+                    shift -= 4;
+                }
+            }
+        }
+        return pack(handRank, tieBreakers);
+    }
+
+    /**
+     * Returns the hand rank of a strength.
+     *
+     * @param strength Strength of a hand
+     * @return Rank of the hand
+     */
+    public static HandRank getHandRank(int strength) {
+        return HAND_RANKS[strength >>> HAND_RANK_SHIFT];
+    }
+
+    /**
+     * Returns one of the tie-breaking ranks of a strength.
+     *
+     * @param strength Strength of a hand
+     * @param i        Position of the rank, 0 is the most significant
+     * @return Ordinal of the rank
+     */
+    public static int getTieBreaker(int strength, int i) {
+        return (strength >>> (16 - 4 * i)) & 0xF;
+    }
+
+    /**
+     * Converts a strength to the score that Hand.getScore() uses: the
+     * tie-breaking ranks read as the digits of a base-100 number.
+     *
+     * @param strength Strength of a hand
+     * @return Score of the hand
+     */
+    public static int getScore(int strength) {
+        int numTieBreakers = GROUP_SIZES[strength >>> HAND_RANK_SHIFT].length;
+        int score = 0;
+        for (int i = 0; i < numTieBreakers; i++) {
+            score = score * 100 + getTieBreaker(strength, i);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,151 @@
+package main;
+
+import java.util.Arrays;
+
+import main.interfaces.CardSource;
+
+/**
+ * IndexedDeck class. Represents a deck of cards whose shuffle for hand i is a
+ * pure function of (seed, i). The random numbers come from a counter-based
+ * generator: the j-th draw of hand i uses a keyed hash of (seed, i, j), so any
+ * hand can be dealt directly with seek() without generating the hands before
+ * it. Workers can deal disjoint ranges of hands, and a logged hand can be
+ * dealt again from its index alone.
+ *
+ * Each draw is one step of a partial Fisher-Yates shuffle, as in
+ * PartialShuffleDeck.
+ */
+public class IndexedDeck implements CardSource {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int[] cards = new int[52]; // card ids, cards[0, cardsLeft) are remaining
+    private int cardsLeft;
+    private int[] liveCards = new int[52]; // ids of the cards that are not dead
+
+    private final long seed;
+    private final long key; // hashed seed
+    private long handIndex; // index of the hand being dealt
+    private long nextHandIndex; // index of the hand that reset() deals next
+    private long handKey; // hash of (seed, handIndex)
+    private int numDrawn; // counter of the draws in the current hand
+
+    /**
+     * Constructor for IndexedDeck. The deck starts at hand 0.
+     * 
+     * @param seed Seed of the deck
+     */
+    public IndexedDeck(long seed) {
+        this.seed = seed;
+        this.key = mix(seed);
+        for (int id = 0; id < this.liveCards.length; id++) {
+            this.liveCards[id] = id;
+        }
+        this.startHand(0);
+    }
+
+    /**
+     * Sets the index of the hand that the next call to reset() deals.
+     * 
+     * @param handIndex Index of the hand
+     */
+    public void seek(long handIndex) {
+        this.nextHandIndex = handIndex;
+    }
+
+    /**
+     * Returns the index of the hand being dealt.
+     * 
+     * @return Index of the current hand
+     */
+    public long getHandIndex() {
+        return this.handIndex;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    @Override
+    public Card draw() throws IllegalStateException {
+        return Card.fromId(this.drawId());
+    }
+
+    @Override
+    public int drawId() throws IllegalStateException {
+        if (this.cardsLeft == 0)
+            throw new IllegalStateException("Cannot draw from an empty deck");
+
+        long random = mix(this.handKey + (++this.numDrawn) * GOLDEN_GAMMA);
+        int i = (int) (((random >>> 32) * this.cardsLeft) >>> 32); // uniform in [0, cardsLeft)
+
+        int card = this.cards[i];
+        this.cards[i] = this.cards[--this.cardsLeft];
+        this.cards[this.cardsLeft] = card;
+        return card;
+    }
+
+    @Override
+    public void draw(int[] dest, int offset, int n) throws IllegalStateException {
+        if (n > this.cardsLeft)
+            throw new IllegalStateException("Cannot draw " + n + " cards, " + this.cardsLeft + " left");
+
+        int[] cards = this.cards;
+        int cardsLeft = this.cardsLeft;
+        for (int k = offset; k < offset + n; k++) {
+            long random = mix(this.handKey + (++this.numDrawn) * GOLDEN_GAMMA);
+            int i = (int) (((random >>> 32) * cardsLeft) >>> 32);
+            int card = cards[i];
+            cards[i] = cards[--cardsLeft];
+            cards[cardsLeft] = card;
+            dest[k] = card;
+        }
+        this.cardsLeft = cardsLeft;
+    }
+
+    @Override
+    public int cardsLeft() {
+        return this.cardsLeft;
+    }
+
+    /**
+     * Starts the next hand, see seek().
+     */
+    @Override
+    public void reset() {
+        this.startHand(this.nextHandIndex++);
+    }
+
+    @Override
+    public void setDeadCards(CardSet deadCards) {
+        this.liveCards = new int[52 - deadCards.size()];
+        int i = 0;
+        for (int id = 0; id < 52; id++) {
+            if (!deadCards.contains(id)) {
+                this.liveCards[i++] = id;
+            }
+        }
+        this.cardsLeft = 0; // the deck is empty until the next reset()
+    }
+
+    private void startHand(long handIndex) {
+        System.arraycopy(this.liveCards, 0, this.cards, 0, this.liveCards.length);
+        this.cardsLeft = this.liveCards.length;
+        this.handIndex = handIndex;
+        this.handKey = mix(this.key ^ (handIndex * GOLDEN_GAMMA));
+        this.numDrawn = 0;
+    }
+
+    /**
+     * SplitMix64's finalizer, a bijective hash of 64-bit values.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return "hand " + this.handIndex + " " + Arrays.toString(Arrays.copyOf(this.cards, this.cardsLeft));
+    }
+}
@@ -0,0 +1,132 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Table-driven 7-card hand evaluator. The evaluator walks a precomputed
+ * state-transition table: every card moves the walk from one state to the
+ * next with a single array lookup, and the 7th lookup returns the value of the
+ * hand. The table is generated once by LookupTableGenerator, persisted to disk
+ * and then memory-mapped, so a new JVM can start evaluating without having to
+ * regenerate it.
+ *
+ * The value of a hand is its packed HandStrength, the same value that
+ * BitmaskEvaluator and Hand.getStrength() return.
+ */
+public class LookupTableEvaluator {
+    static final int MAGIC = 0x504B5254; // "PKRT"
+    static final int VERSION = 2;
+    static final int NUM_CARDS = 52;
+    static final int HEADER_INTS = 3; // magic, version, number of states
+
+    private final IntBuffer table; // NUM_CARDS transitions per state, indexed by Card.id()
+
+    private LookupTableEvaluator(IntBuffer table) {
+        this.table = table;
+    }
+
+    /**
+     * Memory-maps a lookup table that was written by generate().
+     *
+     * @param path Path of the lookup table file
+     * @return Evaluator backed by the mapped table
+     * @throws IOException If the file cannot be read or is not a lookup table
+     */
+    public static LookupTableEvaluator load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            IntBuffer ints = buffer.asIntBuffer();
+
+            if (ints.limit() < HEADER_INTS || ints.get(0) != MAGIC || ints.get(1) != VERSION) {
+                throw new IOException("Not a lookup table (or an outdated one): " + path);
+            }
+
+            int numStates = ints.get(2);
+            if (ints.limit() != HEADER_INTS + numStates * NUM_CARDS) {
+                throw new IOException("Truncated lookup table: " + path);
+            }
+
+            ByteBuffer body = buffer.position(HEADER_INTS * Integer.BYTES).slice();
+            return new LookupTableEvaluator(body.asIntBuffer());
+        }
+    }
+
+    /**
+     * Generates the lookup table and writes it to the given path.
+     *
+     * @param path Path of the lookup table file
+     * @throws IOException If the file cannot be written
+     */
+    public static void generate(Path path) throws IOException {
+        new LookupTableGenerator().generate(path);
+    }
+
+    /**
+     * Loads the lookup table at the given path, generating it first if the file
+     * does not exist yet.
+     *
+     * @param path Path of the lookup table file
+     * @return Evaluator backed by the mapped table
+     * @throws IOException If the file cannot be generated or read
+     */
+    public static LookupTableEvaluator loadOrGenerate(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            generate(path);
+        }
+        return load(path);
+    }
+
+    /**
+     * Evaluates a hand of 7 cards.
+     *
+     * @param cards 7 cards: 2 player cards + 5 community cards
+     * @return Strength of the hand, higher strength wins
+     * @throws IllegalArgumentException If the hand does not contain 7 distinct
+     *                                  cards
+     */
+    public int evaluate(List<Card> cards) {
+        if (cards.size() != 7) {
+            throw new IllegalArgumentException("Hand must contain 7 cards");
+        }
+
+        // the table cannot detect every duplicate: the suits of the cards that
+        // cannot make a flush are dropped from the states
+        long seen = 0;
+        int offset = 0;
+        for (Card card : cards) {
+            seen |= 1L << card.id();
+            offset = this.table.get(offset + card.id());
+        }
+        if (Long.bitCount(seen) != 7) {
+            throw new IllegalArgumentException("Hand contains duplicate cards: " + cards);
+        }
+        return offset; // the last transition holds the strength of the hand
+    }
+
+    /**
+     * Evaluates a set of 7 cards.
+     *
+     * @param cards 7 cards: 2 player cards + 5 community cards
+     * @return Strength of the hand, higher strength wins
+     * @throws IllegalArgumentException If the set does not contain 7 cards
+     */
+    public int evaluate(CardSet cards) {
+        if (cards.size() != 7) {
+            throw new IllegalArgumentException("Hand must contain 7 cards");
+        }
+
+        int offset = 0;
+        for (int id = cards.first(); id >= 0; id = cards.next(id)) {
+            offset = this.table.get(offset + id);
+        }
+        return offset;
+    }
+}
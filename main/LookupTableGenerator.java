@@ -0,0 +1,211 @@
+package main;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Generates the state-transition table used by LookupTableEvaluator.
+ *
+ * A state is a sorted set of up to 6 cards packed into a long, one byte per
+ * card: the rank (1-13) in the high nibble and the suit (1-4) in the low
+ * nibble. Once a suit can no longer make a flush with the cards still to come,
+ * its cards are stored without a suit (0), which collapses equivalent hands
+ * into the same state and keeps the table at ~612K states.
+ *
+ * Each state has one transition per card. Transitions out of 6-card states
+ * hold the HandStrength of the resulting 7-card hand, all other transitions
+ * hold the offset of the next state's row in the table.
+ */
+class LookupTableGenerator {
+    private static final int NUM_CARDS = LookupTableEvaluator.NUM_CARDS;
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final int NUM_SUITS = Suit.values().length;
+    private static final long INVALID = -1;
+
+    // scratch space for building states, reused to avoid allocating per card
+    private final int[] cardBytes = new int[7];
+    private final int[] rankCounts = new int[NUM_RANKS + 1];
+    private final int[] suitCounts = new int[NUM_SUITS + 1];
+
+    private long[] states = new long[1 << 20];
+    private int numStates = 0;
+    private final HashMap<Long, Integer> stateIndices = new HashMap<>();
+
+    /**
+     * Generates the table and writes it to the given path.
+     *
+     * @param path Path of the lookup table file
+     * @throws IOException If the file cannot be written
+     */
+    void generate(Path path) throws IOException {
+        this.enumerateStates();
+
+        int[] table = new int[this.numStates * NUM_CARDS];
+        for (int state = 0; state < this.numStates; state++) {
+            boolean isLastCard = countCards(this.states[state]) == 6;
+
+            for (int card = 0; card < NUM_CARDS; card++) {
+                long next = this.addCard(this.states[state], card);
+                int entry = 0;
+
+                if (next == INVALID) {
+                    entry = 0; // impossible hand, never reached with valid input
+                } else if (isLastCard) {
+                    entry = evaluateState(next);
+                } else {
+                    entry = this.stateIndices.get(next) * NUM_CARDS;
+                }
+
+                table[state * NUM_CARDS + card] = entry;
+            }
+        }
+
+        this.write(path, table);
+    }
+
+    /**
+     * Finds every state of 0 to 6 cards, starting from the empty hand.
+     */
+    private void enumerateStates() {
+        this.addState(0L);
+        for (int state = 0; state < this.numStates; state++) {
+            if (countCards(this.states[state]) == 6) {
+                continue;
+            }
+            for (int card = 0; card < NUM_CARDS; card++) {
+                long next = this.addCard(this.states[state], card);
+                if (next != INVALID && !this.stateIndices.containsKey(next)) {
+                    this.addState(next);
+                }
+            }
+        }
+    }
+
+    private void addState(long state) {
+        if (this.numStates == this.states.length) {
+            this.states = Arrays.copyOf(this.states, this.states.length * 2);
+        }
+        this.stateIndices.put(state, this.numStates);
+        this.states[this.numStates++] = state;
+    }
+
+    /**
+     * Adds a card to a state.
+     *
+     * @param state State to add the card to
+     * @param card  Index of the card (0-51)
+     * @return The new state, or INVALID if the card cannot be added
+     */
+    private long addCard(long state, int card) {
+        int rank = card % NUM_RANKS + 1;
+        int suit = card / NUM_RANKS + 1;
+        int newCard = rank << 4 | suit;
+
+        Arrays.fill(this.rankCounts, 0);
+        Arrays.fill(this.suitCounts, 0);
+
+        int numCards = 0;
+        for (; numCards < 6; numCards++) {
+            int cardByte = (int) (state >>> (8 * numCards)) & 0xFF;
+            if (cardByte == 0) {
+                break;
+            }
+            if (cardByte == newCard) {
+                return INVALID; // card already in the hand
+            }
+            this.cardBytes[numCards] = cardByte;
+        }
+        this.cardBytes[numCards++] = newCard;
+
+        for (int i = 0; i < numCards; i++) {
+            this.rankCounts[this.cardBytes[i] >> 4]++;
+            this.suitCounts[this.cardBytes[i] & 0xF]++;
+        }
+        if (this.rankCounts[rank] > 4) {
+            return INVALID;
+        }
+
+        // Drop the suit of cards whose suit can no longer make a flush
+        int neededSuited = numCards - 2;
+        if (neededSuited > 1) {
+            for (int i = 0; i < numCards; i++) {
+                int cardSuit = this.cardBytes[i] & 0xF;
+                if (cardSuit != 0 && this.suitCounts[cardSuit] < neededSuited) {
+                    this.cardBytes[i] &= 0xF0;
+                }
+            }
+        }
+
+        // Sort the cards in DESCENDING order so equivalent hands share a state
+        for (int i = 1; i < numCards; i++) {
+            int cardByte = this.cardBytes[i];
+            int j = i - 1;
+            for (; j >= 0 && this.cardBytes[j] < cardByte; j--) {
+                this.cardBytes[j + 1] = this.cardBytes[j];
+            }
+            this.cardBytes[j + 1] = cardByte;
+        }
+
+        long newState = 0;
+        for (int i = 0; i < numCards; i++) {
+            newState |= (long) this.cardBytes[i] << (8 * i);
+        }
+        return newState;
+    }
+
+    /**
+     * Evaluates a 7-card state. Cards without a suit are given suits that cannot
+     * make a flush and that keep every card distinct.
+     *
+     * @param state 7-card state
+     * @return Strength of the hand
+     */
+    private static int evaluateState(long state) {
+        int flushSuit = 0;
+        for (int i = 0; i < 7; i++) {
+            int cardSuit = (int) (state >>> (8 * i)) & 0xF;
+            if (cardSuit != 0) {
+                flushSuit = cardSuit; // only the flush suit survives at 7 cards
+            }
+        }
+
+        long cards = 0;
+        int nextSuit = 0;
+        for (int i = 0; i < 7; i++) {
+            int cardByte = (int) (state >>> (8 * i)) & 0xFF;
+            int suit = cardByte & 0xF;
+            if (suit == 0) {
+                // rotate through the non-flush suits, cards of the same rank are
+                // adjacent so they get different suits
+                do {
+                    suit = nextSuit % NUM_SUITS + 1;
+                    nextSuit++;
+                } while (suit == flushSuit);
+            }
+            cards |= 1L << ((suit - 1) * NUM_RANKS + (cardByte >> 4) - 1);
+        }
+
+        return BitmaskEvaluator.evaluate(cards);
+    }
+
+    private static int countCards(long state) {
+        return (64 - Long.numberOfLeadingZeros(state) + 7) / 8;
+    }
+
+    private void write(Path path, int[] table) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(LookupTableEvaluator.MAGIC);
+            out.writeInt(LookupTableEvaluator.VERSION);
+            out.writeInt(this.numStates);
+            for (int entry : table) {
+                out.writeInt(entry);
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import main.interfaces.CardSource;
 public class OrderedDeck implements CardSource {
 
     protected final ArrayList<Card> cards = new ArrayList<>();
+    private CardSet deadCards = CardSet.EMPTY;
 
     public OrderedDeck() {
         this.reset();
@@ -24,6 +25,19 @@ public class OrderedDeck implements CardSource {
         return this.cards.remove(this.cards.size() - 1); // remove & return the last card
     }
 
+    @Override
+    public void draw(int[] dest, int offset, int n) throws IllegalStateException {
+        int size = this.cards.size();
+        if (n > size)
+            throw new IllegalStateException("Cannot draw " + n + " cards, " + size + " left");
+
+        // read the last n cards, then remove them all at once
+        for (int i = 0; i < n; i++) {
+            dest[offset + i] = this.cards.get(size - 1 - i).id();
+        }
+        this.cards.subList(size - n, size).clear();
+    }
+
     @Override
     public int cardsLeft() {
         return this.cards.size();
@@ -35,11 +49,20 @@ public class OrderedDeck implements CardSource {
 
         for (Suit suit : Suit.values()) {
             for (Rank rank : Rank.values()) {
-                this.cards.add(Card.get(rank, suit));
+                Card card = Card.get(rank, suit);
+                if (!this.deadCards.contains(card)) {
+                    this.cards.add(card);
+                }
             }
         }
     }
 
+    @Override
+    public void setDeadCards(CardSet deadCards) {
+        this.deadCards = deadCards;
+        this.cards.clear(); // the deck is empty until the next reset()
+    }
+
     @Override
     public String toString() {
         return this.cards.toString();
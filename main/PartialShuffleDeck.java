@@ -0,0 +1,121 @@
+package main;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import main.interfaces.CardSource;
+
+/**
+ * PartialShuffleDeck class. Represents a deck of cards stored as an array of
+ * 52 card ids. The deck is shuffled lazily with a partial Fisher-Yates
+ * shuffle: each draw swaps a random remaining card to the end of the deck, so
+ * only the cards that are actually dealt get shuffled. Since the array is
+ * always a permutation of the 52 cards, reset() only has to mark every card as
+ * remaining again.
+ *
+ * Dead cards (see setDeadCards()) are moved past the end of the live cards,
+ * so the remaining cards are sampled uniformly without rejection.
+ *
+ * The deck draws its random numbers from a RandomGenerator, which can be
+ * seeded or split off a RandomStreams to make runs reproducible.
+ */
+public class PartialShuffleDeck implements CardSource {
+
+    protected final int[] cards = new int[52]; // card ids, cards[0, cardsLeft) are remaining
+    protected int cardsLeft;
+    protected int numLiveCards = 52; // cards[0, numLiveCards) are not dead
+    private final RandomGenerator random;
+
+    public PartialShuffleDeck() {
+        this(RandomStreams.create());
+    }
+
+    /**
+     * Constructor for a deck whose shuffles are reproducible from a seed.
+     * 
+     * @param seed Seed of the deck's generator
+     */
+    public PartialShuffleDeck(long seed) {
+        this(RandomStreams.create(seed));
+    }
+
+    /**
+     * Constructor for a deck that draws from the given generator. The generator
+     * should not be shared with other threads.
+     * 
+     * @param random Generator used to shuffle the deck
+     */
+    public PartialShuffleDeck(RandomGenerator random) {
+        this.random = random;
+        for (int id = 0; id < this.cards.length; id++) {
+            this.cards[id] = id;
+        }
+        this.reset();
+    }
+
+    @Override
+    public Card draw() throws IllegalStateException {
+        return Card.fromId(this.drawId());
+    }
+
+    @Override
+    public int drawId() throws IllegalStateException {
+        if (this.cardsLeft == 0)
+            throw new IllegalStateException("Cannot draw from an empty deck");
+
+        // swap a random remaining card with the last remaining card
+        int i = this.random.nextInt(this.cardsLeft);
+        int card = this.cards[i];
+        this.cards[i] = this.cards[--this.cardsLeft];
+        this.cards[this.cardsLeft] = card;
+        return card;
+    }
+
+    @Override
+    public void draw(int[] dest, int offset, int n) throws IllegalStateException {
+        if (n > this.cardsLeft)
+            throw new IllegalStateException("Cannot draw " + n + " cards, " + this.cardsLeft + " left");
+
+        int[] cards = this.cards;
+        int cardsLeft = this.cardsLeft;
+        for (int k = offset; k < offset + n; k++) {
+            int i = this.random.nextInt(cardsLeft);
+            int card = cards[i];
+            cards[i] = cards[--cardsLeft];
+            cards[cardsLeft] = card;
+            dest[k] = card;
+        }
+        this.cardsLeft = cardsLeft;
+    }
+
+    @Override
+    public int cardsLeft() {
+        return this.cardsLeft;
+    }
+
+    @Override
+    public void reset() {
+        this.cardsLeft = this.numLiveCards;
+    }
+
+    @Override
+    public void setDeadCards(CardSet deadCards) {
+        // rebuild the deck with the live cards first and the dead cards last
+        int live = 0;
+        int dead = this.cards.length;
+        for (int id = 0; id < this.cards.length; id++) {
+            if (deadCards.contains(id)) {
+                this.cards[--dead] = id;
+            } else {
+                this.cards[live++] = id;
+            }
+        }
+        this.numLiveCards = live;
+        this.cardsLeft = 0; // the deck is empty until the next reset()
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(this.cards, this.cardsLeft));
+    }
+}
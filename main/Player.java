@@ -9,7 +9,8 @@ import java.util.Arrays;
 public class Player {
     private final int playerid;
     private Card[] dealtCards = new Card[2]; // 2 cards dealt to player
-    private Hand hand;
+    private final Hand hand = new Hand(); // reused for every deal
+    private int strength = -1; // strength of the hand, -1 if not evaluated
 
     public Player(int playerid) {
         this.playerid = playerid;
@@ -23,7 +24,8 @@ public class Player {
     public Player(Player player) {
         this.playerid = player.playerid;
         this.dealtCards = player.dealtCards;
-        this.hand = new Hand(player.hand);
+        this.hand.set(player.hand);
+        this.strength = player.strength;
     }
 
     /**
@@ -33,7 +35,7 @@ public class Player {
      * @param card2
      */
     public void dealCards(Card card1, Card card2) {
-        this.hand = null;
+        this.strength = -1;
         this.dealtCards[0] = card1;
         this.dealtCards[1] = card2;
     }
@@ -41,21 +43,69 @@ public class Player {
     /**
      * Sets the hand rank and the best 5-card hand.
      * 
-     * @param handRank the hand rank
-     * @param hand     the best 5-card hand
+     * @param hand the evaluated hand, copied into the player's hand
      */
     public void setHand(Hand hand) {
-        this.hand = new Hand(hand);
+        this.hand.set(hand);
+        this.strength = hand.getStrength();
+    }
+
+    /**
+     * Sets the strength of the player's hand and the cards it is made of,
+     * without allocating. The best 5 cards are only worked out if the Hand is
+     * asked for them.
+     * 
+     * @param strength strength of the hand, see HandStrength
+     * @param cardIds  array holding the ids of the cards the hand is made of
+     * @param offset   index of the first card in the array
+     * @param length   number of cards
+     */
+    public void setHand(int strength, int[] cardIds, int offset, int length) {
+        this.hand.set(strength, cardIds, offset, length);
+        this.strength = strength;
     }
 
     public String toString() {
         String baseString = "P" + this.playerid;
-        return this.hand == null ? baseString
-                : baseString + " [" + this.dealtCards[0] + " " + this.dealtCards[1] + "] " + this.hand.toString();
+        return this.strength < 0 ? baseString
+                : baseString + " [" + this.dealtCards[0] + " " + this.dealtCards[1] + "] " + this.getHand().toString();
     }
 
+    /**
+     * Returns the player's hand. The Hand is reused for the next deals, so it
+     * must be copied to keep it.
+     * 
+     * @return the hand, or null if the hand has not been evaluated
+     */
     public Hand getHand() {
-        return this.hand;
+        return this.strength < 0 ? null : this.hand;
+    }
+
+    /**
+     * Returns the strength of the player's hand.
+     * 
+     * @return strength of the hand, or -1 if the hand has not been evaluated
+     */
+    public int getStrength() {
+        return this.strength;
+    }
+
+    /**
+     * Returns the rank of the player's hand, without building the Hand.
+     * 
+     * @return rank of the hand, or null if the hand has not been evaluated
+     */
+    public HandRank getHandRank() {
+        return this.strength < 0 ? null : HandStrength.getHandRank(this.strength);
+    }
+
+    /**
+     * Returns the 2 cards dealt to the player as a CardSet.
+     * 
+     * @return set of the hole cards
+     */
+    public CardSet getHoleCards() {
+        return CardSet.of(this.dealtCards);
     }
 
     public ArrayList<Card> getCards() {
@@ -63,6 +113,16 @@ public class Player {
         return cards;
     }
 
+    /**
+     * Returns one of the 2 cards dealt to the player.
+     * 
+     * @param index 0 or 1
+     * @return the dealt card
+     */
+    public Card getCard(int index) {
+        return this.dealtCards[index];
+    }
+
     public int getPlayerid() {
         return this.playerid;
     }
@@ -1,20 +1,55 @@
 package main;
 
 import java.util.Collections;
+import java.util.random.RandomGenerator;
 
 /**
  * RandomDeck class. Represents a deck of cards. The deck is initialized with 52
  * cards and is shuffled. The deck can be drawn from.
+ *
+ * The deck is shuffled with its own RandomGenerator, which can be seeded or
+ * split off a RandomStreams to make runs reproducible.
  */
 public class RandomDeck extends OrderedDeck {
 
+    private final RandomGenerator random;
+
     public RandomDeck() {
-        super();
+        this(RandomStreams.create());
+    }
+
+    /**
+     * Constructor for a deck whose shuffles are reproducible from a seed.
+     * 
+     * @param seed Seed of the deck's generator
+     */
+    public RandomDeck(long seed) {
+        this(RandomStreams.create(seed));
+    }
+
+    /**
+     * Constructor for a deck that is shuffled with the given generator. The
+     * generator should not be shared with other threads.
+     * 
+     * @param random Generator used to shuffle the deck
+     */
+    public RandomDeck(RandomGenerator random) {
+        super(); // OrderedDeck's constructor calls reset() before random is set
+        this.random = random;
+        this.reset();
     }
 
     @Override
     public void reset() {
         super.reset();
-        Collections.shuffle(this.cards);
+        if (this.random == null) {
+            return; // called by OrderedDeck's constructor, shuffled once random is set
+        }
+
+        // Fisher-Yates shuffle
+        for (int i = this.cards.size() - 1; i > 0; i--) {
+            int j = this.random.nextInt(i + 1);
+            Collections.swap(this.cards, i, j);
+        }
     }
 }
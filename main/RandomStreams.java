@@ -0,0 +1,72 @@
+package main;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Source of reproducible random streams for the decks. A RandomStreams wraps a
+ * seeded, splittable master generator (L64X128MixRandom by default) that can
+ * be split into statistically independent child generators, e.g. one per
+ * worker thread. Splitting the same seed in the same order always gives the
+ * same child streams, so a run can be reproduced exactly from its seed.
+ */
+public class RandomStreams {
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    private final SplittableGenerator master;
+
+    /**
+     * Constructor for RandomStreams using the default algorithm.
+     * 
+     * @param seed Seed of the master generator
+     */
+    public RandomStreams(long seed) {
+        this(DEFAULT_ALGORITHM, seed);
+    }
+
+    /**
+     * Constructor for RandomStreams.
+     * 
+     * @param algorithm Name of a splittable algorithm, e.g. "L64X128MixRandom"
+     *                  or "SplittableRandom"
+     * @param seed      Seed of the master generator
+     * @throws IllegalArgumentException If the algorithm is unknown or cannot be
+     *                                  split
+     */
+    public RandomStreams(String algorithm, long seed) {
+        RandomGenerator generator = RandomGeneratorFactory.of(algorithm).create(seed);
+        if (!(generator instanceof SplittableGenerator)) {
+            throw new IllegalArgumentException(algorithm + " is not a splittable generator");
+        }
+        this.master = (SplittableGenerator) generator;
+    }
+
+    /**
+     * Splits a new child stream off the master generator.
+     * 
+     * @return Independent generator, to be used by a single thread
+     */
+    public synchronized SplittableGenerator split() {
+        return this.master.split();
+    }
+
+    /**
+     * Creates a generator of the default algorithm with the given seed.
+     * 
+     * @param seed Seed of the generator
+     * @return Seeded generator
+     */
+    public static RandomGenerator create(long seed) {
+        return RandomGeneratorFactory.of(DEFAULT_ALGORITHM).create(seed);
+    }
+
+    /**
+     * Creates a generator of the default algorithm with a random seed.
+     * 
+     * @return Unseeded generator
+     */
+    public static RandomGenerator create() {
+        return RandomGeneratorFactory.of(DEFAULT_ALGORITHM).create();
+    }
+}
@@ -0,0 +1,251 @@
+package main;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * The permutations of the suits that leave some known cards unchanged, e.g. the
+ * hole cards and the board of an equity calculation. Two boards that one of
+ * these permutations maps to each other give the same results, so an
+ * enumeration only needs to evaluate one board of each orbit (the canonical
+ * one, with the smallest bitmask) and count it as many times as its orbit has
+ * boards.
+ *
+ * The cards of a suit are 13 consecutive bits of a bitmask (see Card.id()), so
+ * a permutation moves 4 blocks of bits.
+ *
+ * Usage: int multiplicity = isomorphism.multiplicity(board); if (multiplicity
+ * > 0) { evaluate the board and weigh it by multiplicity }
+ */
+public class SuitIsomorphism {
+    public static final int NUM_PERMUTATIONS = 24;
+
+    private static final int NUM_SUITS = Suit.values().length;
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final long SUIT_MASK = (1L << NUM_RANKS) - 1;
+    private static final int[][] PERMUTATIONS = new int[NUM_PERMUTATIONS][]; // image of each suit ordinal
+    static {
+        int n = 0;
+        for (int a = 0; a < NUM_SUITS; a++) {
+            for (int b = 0; b < NUM_SUITS; b++) {
+                for (int c = 0; c < NUM_SUITS; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d != a && d != b && d != c) {
+                        PERMUTATIONS[n++] = new int[] { a, b, c, d };
+                    }
+                }
+            }
+        }
+    }
+
+    private final int[][] permutations; // permutations of the group, the identity first
+
+    /**
+     * Constructor for the permutations of the suits that map each of the given
+     * sets of cards onto itself.
+     *
+     * @param fixed Sets of cards to leave unchanged (hole cards, board...)
+     */
+    public SuitIsomorphism(CardSet... fixed) {
+        int[][] permutations = new int[NUM_PERMUTATIONS][];
+        int size = 0;
+        for (int[] permutation : PERMUTATIONS) {
+            boolean fixes = true;
+            for (CardSet cards : fixed) {
+                fixes &= permute(permutation, cards.bits()) == cards.bits();
+            }
+            if (fixes) {
+                permutations[size++] = permutation;
+            }
+        }
+        this.permutations = Arrays.copyOf(permutations, size);
+    }
+
+    private SuitIsomorphism(int[][] permutations) {
+        this.permutations = permutations;
+    }
+
+    /**
+     * Returns the permutations of this group for which a predicate holds, e.g.
+     * the ones that also leave the weights of a range unchanged. The predicate
+     * must hold for the identity and for a group.
+     *
+     * @param fixes Whether the permutation with the given index in this group
+     *              is kept
+     * @return Group of the permutations kept
+     */
+    public SuitIsomorphism retainIf(IntPredicate fixes) {
+        int[][] permutations = new int[this.permutations.length][];
+        int size = 0;
+        for (int i = 0; i < this.permutations.length; i++) {
+            if (fixes.test(i)) {
+                permutations[size++] = this.permutations[i];
+            }
+        }
+        if (size == 0 || permutations[0] != this.permutations[0])
+            throw new IllegalArgumentException("The identity must be kept");
+
+        return new SuitIsomorphism(Arrays.copyOf(permutations, size));
+    }
+
+    /**
+     * Returns the number of permutations, 1 to NUM_PERMUTATIONS.
+     */
+    public int size() {
+        return this.permutations.length;
+    }
+
+    /**
+     * Returns the image of a card by a permutation of the group.
+     *
+     * @param i  Index of the permutation, 0 to size() - 1
+     * @param id Id of the card
+     * @return Id of the image of the card
+     */
+    public int permute(int i, int id) {
+        return this.permutations[i][id / NUM_RANKS] * NUM_RANKS + id % NUM_RANKS;
+    }
+
+    /**
+     * Returns the image of a card by a permutation of the group.
+     *
+     * @param i    Index of the permutation, 0 to size() - 1
+     * @param card A card
+     * @return Image of the card
+     */
+    public Card permute(int i, Card card) {
+        return Card.get(card.getRank(), Suit.values()[this.permutations[i][card.getSuit().ordinal()]]);
+    }
+
+    /**
+     * Returns the image of a set of cards by a permutation of the group.
+     *
+     * @param i    Index of the permutation, 0 to size() - 1
+     * @param mask Bitmask of the cards
+     * @return Bitmask of the images of the cards
+     */
+    public long permute(int i, long mask) {
+        return permute(this.permutations[i], mask);
+    }
+
+    private static long permute(int[] permutation, long mask) {
+        return (mask & SUIT_MASK) << (NUM_RANKS * permutation[0])
+                | (mask >>> NUM_RANKS & SUIT_MASK) << (NUM_RANKS * permutation[1])
+                | (mask >>> 2 * NUM_RANKS & SUIT_MASK) << (NUM_RANKS * permutation[2])
+                | (mask >>> 3 * NUM_RANKS & SUIT_MASK) << (NUM_RANKS * permutation[3]);
+    }
+
+    /**
+     * Returns the canonical image of a set of cards: the image with the smallest
+     * bitmask.
+     *
+     * @param mask Bitmask of the cards
+     * @return Bitmask of the canonical image
+     */
+    public long canonicalize(long mask) {
+        long canonical = mask;
+        for (int[] permutation : this.permutations) {
+            canonical = Math.min(canonical, permute(permutation, mask));
+        }
+        return canonical;
+    }
+
+    /**
+     * Returns the number of distinct images of a set of cards if it is canonical,
+     * and 0 otherwise. Summing a function of the sets that the group leaves
+     * unchanged over the canonical sets, weighted by their multiplicities, gives
+     * its sum over every set.
+     *
+     * @param mask Bitmask of the cards
+     * @return Size of the orbit of the set, or 0 if it is not canonical
+     */
+    public int multiplicity(long mask) {
+        int numFixing = 0;
+        for (int[] permutation : this.permutations) {
+            long image = permute(permutation, mask);
+            if (image < mask) {
+                return 0;
+            }
+            if (image == mask) {
+                numFixing++;
+            }
+        }
+        return this.permutations.length / numFixing;
+    }
+
+    /**
+     * Maps hole cards and a board to their canonical representative under every
+     * permutation of the suits: the image with the smallest hole cards, then the
+     * smallest board.
+     *
+     * @param holeCards Hole cards
+     * @param board     Community cards
+     * @return Canonical hole cards and board, and the number of distinct
+     *         situations they represent
+     */
+    public static Canonical canonicalize(CardSet holeCards, CardSet board) {
+        long bestHole = Long.MAX_VALUE;
+        long bestBoard = Long.MAX_VALUE;
+        int numFixing = 0;
+        for (int[] permutation : PERMUTATIONS) {
+            long hole = permute(permutation, holeCards.bits());
+            long community = permute(permutation, board.bits());
+            if (hole < bestHole || (hole == bestHole && community < bestBoard)) {
+                bestHole = hole;
+                bestBoard = community;
+            }
+            if (hole == holeCards.bits() && community == board.bits()) {
+                numFixing++;
+            }
+        }
+        return new Canonical(CardSet.of(bestHole), CardSet.of(bestBoard), NUM_PERMUTATIONS / numFixing);
+    }
+
+    /**
+     * Canonical hole cards and board, and the number of situations that they
+     * represent.
+     */
+    public static class Canonical {
+        private final CardSet holeCards;
+        private final CardSet board;
+        private final int multiplicity;
+
+        Canonical(CardSet holeCards, CardSet board, int multiplicity) {
+            this.holeCards = holeCards;
+            this.board = board;
+            this.multiplicity = multiplicity;
+        }
+
+        public CardSet getHoleCards() {
+            return this.holeCards;
+        }
+
+        public CardSet getBoard() {
+            return this.board;
+        }
+
+        /**
+         * Returns the number of distinct (hole cards, board) situations that map to
+         * this one, 1 to NUM_PERMUTATIONS.
+         */
+        public int getMultiplicity() {
+            return this.multiplicity;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Canonical && ((Canonical) other).holeCards.equals(this.holeCards)
+                    && ((Canonical) other).board.equals(this.board);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.holeCards.hashCode() + this.board.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.holeCards + " " + this.board + " (x" + this.multiplicity + ")";
+        }
+    }
+}
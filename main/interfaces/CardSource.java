@@ -1,6 +1,7 @@
 package main.interfaces;
 
 import main.Card;
+import main.CardSet;
 
 /**
  * CardSource interface. Represents a source of cards.
@@ -14,6 +15,35 @@ public interface CardSource {
      */
     public Card draw() throws IllegalStateException;
 
+    /**
+     * Draws a card from the source and returns its id (see Card.id()).
+     * 
+     * @return Id of the card drawn from the source.
+     * @throws IllegalStateException If there are no cards left in the source.
+     */
+    public default int drawId() throws IllegalStateException {
+        return this.draw().id();
+    }
+
+    /**
+     * Draws n cards from the source into an array of card ids, in the order
+     * that n calls to drawId() would return them.
+     * 
+     * @param dest   Array to store the ids of the cards drawn
+     * @param offset Index in the array of the first card drawn
+     * @param n      Number of cards to draw
+     * @throws IllegalStateException If there are fewer than n cards left in the
+     *                               source.
+     */
+    public default void draw(int[] dest, int offset, int n) throws IllegalStateException {
+        if (n > this.cardsLeft())
+            throw new IllegalStateException("Cannot draw " + n + " cards, " + this.cardsLeft() + " left");
+
+        for (int i = offset; i < offset + n; i++) {
+            dest[i] = this.drawId();
+        }
+    }
+
     /**
      * Returns the number of cards left in the source.
      * 
@@ -25,4 +55,16 @@ public interface CardSource {
      * Resets the source to its initial state.
      */
     public void reset();
+
+    /**
+     * Sets the cards that are known to be out of the source (e.g. fixed hole
+     * cards or a fixed board). Dead cards are never drawn, and the remaining
+     * cards are still drawn uniformly. The source is empty until the next
+     * reset(), which deals from the remaining cards only.
+     * 
+     * @param deadCards Cards to leave out of the source
+     * @throws IllegalStateException If the dead cards of the source cannot be
+     *                               changed any more
+     */
+    public void setDeadCards(CardSet deadCards) throws IllegalStateException;
 }
@@ -0,0 +1,248 @@
+package server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import equity.EquityCache;
+import equity.EquityCalculator;
+import equity.EquityResult;
+import main.Card;
+import main.CardSet;
+import main.HandStrength;
+
+/**
+ * Long-lived local HTTP server for hand evaluations and equities, so that
+ * queries do not pay for the JVM startup and the JIT warmup. Each request is
+ * handled on its own virtual thread. Every endpoint answers GET requests with a
+ * JSON object:
+ *
+ * GET /evaluate?cards=AsKsQsJsTs: strength and rank of a 5 to 7 card hand. The
+ * concurrent evaluations are coalesced into batches (see EvaluationBatcher).
+ *
+ * GET /equity?hole=AsKs&board=Ts7h2s&dead=Qd&opponents=2&budgetMs=5: equity of
+ * hole cards against random opponents. The board, dead cards, number of
+ * opponents (1 by default) and budget are optional. Without a budget the
+ * result comes from an EquityCache in front of an EquityCalculator; with a
+ * budget it is an anytime estimate that is ready within that many
+ * milliseconds, at most MAX_BUDGET_MS.
+ *
+ * GET /stats: counters of the batches and the cache.
+ *
+ * Invalid parameters get a 400 response with an "error" field.
+ */
+public class EquityServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_CACHE_SIZE = 1 << 16;
+    public static final int MAX_BUDGET_MS = 1000; // the anytime queries share the threads of the calculator
+    static final long EVALUATION_TIMEOUT_MS = 10000; // a stuck evaluator fails the requests instead of hanging them
+    static {
+        // the JDK server writes the headers and the body of a response
+        // separately, and Nagle's algorithm then holds the body until the client
+        // acknowledges the headers, up to 40 ms later. Read when the first
+        // HttpServer is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final EvaluationBatcher batcher = new EvaluationBatcher();
+    private final EquityCalculator calculator;
+    private final EquityCache cache;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        EquityServer server = new EquityServer(port, new EquityCalculator(), DEFAULT_CACHE_SIZE);
+        server.start();
+        System.out.println("Listening on http://localhost:" + server.getPort());
+    }
+
+    /**
+     * Constructor for an EquityServer bound to the loopback address. Call
+     * start() to serve requests.
+     *
+     * @param port       Port to listen on, 0 for any free port
+     * @param calculator Calculator of the equities
+     * @param cacheSize  Maximum number of equities to cache
+     * @throws IOException If the port cannot be bound
+     */
+    public EquityServer(int port, EquityCalculator calculator, int cacheSize) throws IOException {
+        this.calculator = calculator;
+        this.cache = new EquityCache(calculator, cacheSize);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/evaluate", exchange -> this.handle(exchange, this::evaluate));
+        this.server.createContext("/equity", exchange -> this.handle(exchange, this::equity));
+        this.server.createContext("/stats", exchange -> this.handle(exchange, parameters -> this.stats()));
+    }
+
+    public void start() {
+        this.server.start();
+    }
+
+    /**
+     * Returns the port that the server listens on.
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, waiting at most a second for the requests being handled.
+     */
+    @Override
+    public void close() {
+        this.server.stop(1);
+        this.executor.close();
+        this.batcher.close();
+    }
+
+    private String evaluate(HashMap<String, String> parameters) throws Exception {
+        CardSet cards = CardSet.parse(require(parameters, "cards"));
+        int strength = this.batcher.submit(cards).get(EVALUATION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        return String.format("{\"cards\":\"%s\",\"strength\":%d,\"rank\":\"%s\"}", format(cards), strength,
+                HandStrength.getHandRank(strength));
+    }
+
+    private String equity(HashMap<String, String> parameters) {
+        CardSet holeCards = CardSet.parse(require(parameters, "hole"));
+        CardSet board = CardSet.parse(parameters.getOrDefault("board", ""));
+        CardSet dead = CardSet.parse(parameters.getOrDefault("dead", ""));
+        int numOpponents = parseInt(parameters.getOrDefault("opponents", "1"), "opponents");
+
+        EquityResult result;
+        if (parameters.containsKey("budgetMs")) {
+            int budgetMs = parseInt(parameters.get("budgetMs"), "budgetMs");
+            if (budgetMs <= 0 || budgetMs > MAX_BUDGET_MS)
+                throw new IllegalArgumentException("budgetMs must be 1 to " + MAX_BUDGET_MS + ": " + budgetMs);
+
+            Duration budget = Duration.ofMillis(budgetMs);
+            result = this.calculator.calculateWithin(holeCards, numOpponents, board, dead, budget, 0);
+        } else {
+            result = this.cache.calculate(holeCards, numOpponents, board, dead);
+        }
+        return String.format(
+                "{\"equity\":%s,\"win\":%s,\"tie\":%s,\"loss\":%s,\"standardError\":%s,\"deals\":%d,\"exact\":%b}",
+                number(result.getEquity()), number(result.getWinProbability()), number(result.getTieProbability()),
+                number(result.getLossProbability()), number(result.getStandardError()), result.getNumDeals(),
+                result.isExact());
+    }
+
+    private String stats() {
+        return String.format(
+                "{\"batches\":%d,\"evaluations\":%d,\"cacheSize\":%d,\"cacheHits\":%d,\"cacheMisses\":%d,"
+                        + "\"cacheEvictions\":%d}",
+                this.batcher.getNumBatches(), this.batcher.getNumEvaluations(), this.cache.size(),
+                this.cache.getHits(), this.cache.getMisses(), this.cache.getEvictions());
+    }
+
+    /**
+     * Answers a request with the JSON object of an endpoint, or an error.
+     */
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                status = 405;
+                body = error("Only GET is supported");
+            } else {
+                body = endpoint.answer(parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (ExecutionException | CompletionException e) {
+            status = 500;
+            body = error(String.valueOf(e.getCause()));
+        } catch (Exception e) {
+            status = 500;
+            body = error(e.toString());
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static HashMap<String, String> parseQuery(String query) {
+        HashMap<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals < 0) {
+                parameters.put(URLDecoder.decode(pair, StandardCharsets.UTF_8), "");
+            } else {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String require(HashMap<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null)
+            throw new IllegalArgumentException("Missing parameter: " + name);
+
+        return value;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Writes cards without separators, e.g. "AS10H2D".
+     */
+    private static String format(CardSet cards) {
+        StringBuilder builder = new StringBuilder();
+        for (int id = cards.first(); id >= 0; id = cards.next(id)) {
+            builder.append(Card.fromId(id));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes a JSON number, or null if the value is not a number (e.g. the
+     * equity of an anytime query that ran out of time before any deal).
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    /**
+     * Computes the JSON answer of an endpoint from the query parameters.
+     */
+    private interface Endpoint {
+        String answer(HashMap<String, String> parameters) throws Exception;
+    }
+}
@@ -0,0 +1,110 @@
+package server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import equity.EquityCalculator;
+import main.Card;
+
+/**
+ * Measures the throughput and latency of an EquityServer on localhost: a
+ * number of clients, each on its own virtual thread, send requests back to
+ * back and time each of them.
+ *
+ * Usage: EquityServerBenchmark [clients] [requests per client]
+ */
+public class EquityServerBenchmark {
+    private static final int WARMUP_REQUESTS = 20000;
+
+    public static void main(String[] args) throws Exception {
+        int numClients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        try (EquityServer server = new EquityServer(0, new EquityCalculator(), EquityServer.DEFAULT_CACHE_SIZE)) {
+            server.start();
+            String base = "http://localhost:" + server.getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            run(client, base, "evaluate", numClients, WARMUP_REQUESTS / numClients, false);
+            run(client, base, "evaluate", numClients, requestsPerClient, true);
+            run(client, base, "equity", numClients, WARMUP_REQUESTS / numClients, false);
+            run(client, base, "equity", numClients, requestsPerClient, true);
+
+            HttpRequest stats = HttpRequest.newBuilder(URI.create(base + "/stats")).build();
+            System.out.println(client.send(stats, HttpResponse.BodyHandlers.ofString()).body());
+        }
+    }
+
+    /**
+     * Sends requests to an endpoint from every client and prints the throughput
+     * and latency percentiles.
+     */
+    private static void run(HttpClient client, String base, String endpoint, int numClients, int requestsPerClient,
+            boolean print) throws Exception {
+        long start = System.nanoTime();
+        ArrayList<Future<long[]>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < numClients; c++) {
+                SplittableRandom random = new SplittableRandom(c);
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[requestsPerClient];
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        URI uri = URI.create(base + "/" + endpoint + "?" + randomQuery(endpoint, random));
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                HttpResponse.BodyHandlers.ofString());
+                        latencies[i] = System.nanoTime() - sent;
+                        if (response.statusCode() != 200)
+                            throw new IOException(uri + ": " + response.body());
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] latencies = new long[numClients * requestsPerClient];
+        for (int c = 0; c < numClients; c++) {
+            System.arraycopy(futures.get(c).get(), 0, latencies, c * requestsPerClient, requestsPerClient);
+        }
+        Arrays.sort(latencies);
+        if (print) {
+            System.out.printf("/%s: %d clients, %d requests, %.0f requests/s, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                    endpoint, numClients, latencies.length, latencies.length / (elapsed / 1e9),
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                    latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    /**
+     * Returns a random 7-card hand to evaluate, or a random preflop heads-up
+     * question among the 1326 hole cards (which the cache answers after the
+     * first time).
+     */
+    private static String randomQuery(String endpoint, SplittableRandom random) {
+        int numCards = endpoint.equals("evaluate") ? 7 : 2;
+        long cards = 0;
+        StringBuilder query = new StringBuilder(endpoint.equals("evaluate") ? "cards=" : "hole=");
+        while (Long.bitCount(cards) < numCards) {
+            int id = random.nextInt(52);
+            if ((cards & 1L << id) == 0) {
+                cards |= 1L << id;
+                query.append(Card.fromId(id));
+            }
+        }
+        return query.toString();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,140 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import main.BoardEvaluator;
+import main.CardSet;
+
+/**
+ * Coalesces concurrent hand evaluations into batches. Callers queue their
+ * hands and wait on a future, while a single evaluator thread takes every hand
+ * queued so far (up to MAX_BATCH_SIZE) and evaluates them in one pass with the
+ * same BoardEvaluator. The more requests arrive while a batch is evaluated,
+ * the larger the next batch, so the evaluator thread spends its time
+ * evaluating instead of waking up once per request.
+ *
+ * A hand whose evaluation throws fails its own future only. The batcher must
+ * be closed to stop its thread, which is a daemon thread so a batcher that is
+ * not closed does not keep the JVM alive.
+ */
+class EvaluationBatcher implements AutoCloseable {
+    static final int MAX_BATCH_SIZE = 1024;
+
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread evaluator;
+    private final AtomicLong numBatches = new AtomicLong();
+    private final AtomicLong numEvaluations = new AtomicLong();
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor for EvaluationBatcher. Starts the evaluator thread.
+     */
+    EvaluationBatcher() {
+        this.evaluator = new Thread(this::run, "evaluation-batcher");
+        this.evaluator.setDaemon(true);
+        this.evaluator.start();
+    }
+
+    /**
+     * Queues a hand to evaluate in the next batch.
+     *
+     * @param cards The 5 to 7 cards of the hand
+     * @return Future of the strength of the hand, see HandStrength
+     * @throws IllegalArgumentException If the hand does not have 5 to 7 cards
+     * @throws IllegalStateException    If the batcher is closed
+     */
+    CompletableFuture<Integer> submit(CardSet cards) {
+        if (cards.size() < 5 || cards.size() > 7)
+            throw new IllegalArgumentException("A hand has 5 to 7 cards: " + cards);
+        if (this.closed)
+            throw new IllegalStateException("The batcher is closed");
+
+        Request request = new Request(cards);
+        this.queue.add(request);
+        return request.future;
+    }
+
+    private void run() {
+        ArrayList<Request> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        BoardEvaluator boardEvaluator = new BoardEvaluator();
+        int[] cardIds = new int[7];
+        try {
+            while (!this.closed) {
+                batch.add(this.queue.take());
+                this.queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+                for (Request request : batch) {
+                    try {
+                        int numCards = 0;
+                        for (int id = request.cards.first(); id >= 0; id = request.cards.next(id)) {
+                            cardIds[numCards++] = id;
+                        }
+                        // the last 2 cards play the part of the hole cards
+                        boardEvaluator.setBoard(cardIds, 0, numCards - 2);
+                        request.future.complete(boardEvaluator.evaluate(cardIds[numCards - 2], cardIds[numCards - 1]));
+                    } catch (RuntimeException | Error e) {
+                        // only this hand fails, the thread keeps evaluating the others
+                        request.future.completeExceptionally(e);
+                    }
+                }
+                this.numBatches.incrementAndGet();
+                this.numEvaluations.addAndGet(batch.size());
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+
+        for (Request request : batch) {
+            request.future.completeExceptionally(new IllegalStateException("The batcher is closed"));
+        }
+        for (Request request = this.queue.poll(); request != null; request = this.queue.poll()) {
+            request.future.completeExceptionally(new IllegalStateException("The batcher is closed"));
+        }
+    }
+
+    /**
+     * Returns the number of batches evaluated so far.
+     */
+    long getNumBatches() {
+        return this.numBatches.get();
+    }
+
+    /**
+     * Returns the number of hands evaluated so far.
+     */
+    long getNumEvaluations() {
+        return this.numEvaluations.get();
+    }
+
+    /**
+     * Stops the evaluator thread. The hands that are still queued fail with an
+     * IllegalStateException.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.evaluator.interrupt();
+        try {
+            this.evaluator.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // a hand queued while the thread stopped
+        for (Request request = this.queue.poll(); request != null; request = this.queue.poll()) {
+            request.future.completeExceptionally(new IllegalStateException("The batcher is closed"));
+        }
+    }
+
+    private static class Request {
+        final CardSet cards;
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        Request(CardSet cards) {
+            this.cards = cards;
+        }
+    }
+}
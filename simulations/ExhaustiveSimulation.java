@@ -0,0 +1,97 @@
+package simulations;
+
+import main.BoardEnumerator;
+import main.BoardEvaluator;
+import main.Card;
+import main.CardSet;
+import main.Rank;
+import main.Suit;
+import main.SuitIsomorphism;
+
+/**
+ * Computes exact results for players with known hole cards by enumerating
+ * every possible completion of the board instead of sampling random hands.
+ * Only the completions that are canonical under the suit permutations that
+ * leave the known cards unchanged are evaluated, each counted as many times as
+ * its orbit has completions.
+ */
+public class ExhaustiveSimulation {
+    public static void main(String[] args) {
+        Card[][] holeCards = {
+                { Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES) },
+                { Card.get(Rank.QUEEN, Suit.HEARTS), Card.get(Rank.QUEEN, Suit.DIAMONDS) },
+        };
+        Card[] board = {}; // known community cards, if any
+
+        long[][] results = run(holeCards, board, 0, Long.MAX_VALUE);
+        long numBoards = results[0][0] + results[0][1] + results[0][2];
+        System.out.println(numBoards + " boards");
+        for (int i = 0; i < holeCards.length; i++) {
+            System.out.println("P" + i + " [" + holeCards[i][0] + " " + holeCards[i][1] + "]"
+                    + " won " + (double) results[i][0] / numBoards
+                    + ", tied " + (double) results[i][1] / numBoards);
+        }
+    }
+
+    /**
+     * Enumerates the board completions with an index in [from, to) and counts
+     * how often each player wins, ties and loses. Since a canonical completion
+     * counts for its whole orbit, the counts of a range are only exact once the
+     * counts of every range of a split are added up.
+     * 
+     * @param holeCards Hole cards of each player
+     * @param board     Known community cards (0 to 5)
+     * @param from      Index of the first board completion
+     * @param to        Index after the last board completion, clamped to the
+     *                  number of completions
+     * @return {wins, ties, losses} of each player
+     */
+    public static long[][] run(Card[][] holeCards, Card[] board, long from, long to) {
+        CardSet dead = CardSet.of(board);
+        CardSet[] fixed = new CardSet[holeCards.length + 1];
+        fixed[0] = CardSet.of(board);
+        for (int i = 0; i < holeCards.length; i++) {
+            fixed[i + 1] = CardSet.of(holeCards[i]);
+            dead = dead.union(fixed[i + 1]);
+        }
+        SuitIsomorphism symmetries = new SuitIsomorphism(fixed);
+        int numMissing = 5 - board.length;
+        to = Math.min(to, BoardEnumerator.count(52 - dead.size(), numMissing));
+
+        BoardEnumerator enumerator = new BoardEnumerator(dead, numMissing, from, to);
+        BoardEvaluator evaluator = new BoardEvaluator();
+        int[] boardIds = new int[5];
+        for (int i = 0; i < board.length; i++) {
+            boardIds[i] = board[i].id();
+        }
+
+        long[][] results = new long[holeCards.length][3];
+        int[] strengths = new int[holeCards.length];
+        while (enumerator.next()) {
+            int multiplicity = symmetries.multiplicity(enumerator.getBoard());
+            if (multiplicity == 0) {
+                continue;
+            }
+            enumerator.getBoard(boardIds, board.length);
+            evaluator.setBoard(boardIds, 0, 5);
+
+            int best = -1;
+            int numBest = 0;
+            for (int i = 0; i < holeCards.length; i++) {
+                strengths[i] = evaluator.evaluate(holeCards[i][0].id(), holeCards[i][1].id());
+                if (strengths[i] > best) {
+                    best = strengths[i];
+                    numBest = 1;
+                } else if (strengths[i] == best) {
+                    numBest++;
+                }
+            }
+
+            for (int i = 0; i < holeCards.length; i++) {
+                int result = strengths[i] < best ? 2 : numBest == 1 ? 0 : 1;
+                results[i][result] += multiplicity;
+            }
+        }
+        return results;
+    }
+}
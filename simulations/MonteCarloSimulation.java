@@ -1,47 +1,167 @@
 package simulations;
 
 import java.io.IOException;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
-import logging.FileHandLogger;
 import logging.FileStatsLogger;
+import logging.IndexedHandLogger;
+import logging.StatsLog;
+import logging.StatsLogger;
 import main.Dealer;
+import main.IndexedDeck;
 import main.Player;
-import main.RandomDeck;
-import utils.Utils;
 
 /**
  * Simulates a game of poker and outputs the results to a CSV file.
+ *
+ * The hands are simulated in parallel. Every worker thread owns its own Dealer,
+ * IndexedDeck and StatsLogger shard, and takes chunks of consecutive hands
+ * until all hands are dealt. Since hand i of an IndexedDeck only depends on the
+ * seed and i, a run deals exactly the same hands whatever the number of
+ * threads, and the merged results are identical.
  */
 public class MonteCarloSimulation {
-    public static void main(String[] args) throws IOException {
-        int num_hands = 10000000; // number of hands to simulate
+    static final int CHUNK_SIZE = 1 << 16; // hands per chunk
+    static final int CHECKPOINT_SIZE = 16 * CHUNK_SIZE; // hands between convergence checks
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int max_hands = 10000000; // maximum number of hands to simulate
+        double half_width = 0.005; // stop once every win rate is known to +- 0.5%
         int num_players = 8; // number of players at the table
-        Dealer dealer = new Dealer(new RandomDeck());
-        FileHandLogger logs = new FileHandLogger("C:/Users/me/Desktop/PokerHandLogs.txt");
+        int num_threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime(); // rerun with the same seed to reproduce a run
+        System.out.println("Seed: " + seed + ", threads: " + num_threads);
+        IndexedHandLogger logs = new IndexedHandLogger(seed); // stores hand indices, not text
         FileStatsLogger stats = new FileStatsLogger("C:/Users/me/Desktop/PokerStats.txt");
 
-        for (int i = 0; i < num_players; i++) {
-            dealer.addPlayer(new Player(i));
+        long start = System.nanoTime();
+        int num_hands = runUntilConverged(seed, num_players, max_hands, half_width, num_threads, stats, logs, hands -> {
+            System.out.println(hands + " hands: " + stats.getConvergenceReport(StatsLog.Z_95, half_width));
+        });
+        System.out.println("Simulated " + num_hands + " hands in " + (System.nanoTime() - start) / 1000000 + " ms");
+
+        String logFile = "C:/Users/me/Desktop/PokerHandLogs.txt";
+        logs.printLogsToFile(logFile);
+        System.out.println("Logs written to " + logFile);
+        stats.printStatsToFile();
+    }
+
+    /**
+     * Simulates hands until the win rate of every hole-card class is known to
+     * within a half-width (95% Wilson interval), or until maxHands hands were
+     * simulated. Convergence is checked every CHECKPOINT_SIZE hands, so a seed
+     * stops after the same hands whatever the number of threads.
+     *
+     * @param seed       Seed of the IndexedDeck the hands are dealt from
+     * @param numPlayers Number of players at the table
+     * @param maxHands   Maximum number of hands to simulate
+     * @param halfWidth  Target half-width of the win rate intervals
+     * @param numThreads Number of worker threads
+     * @param stats      Logger the stats of the hands are merged into
+     * @param logs       Logger the hands are merged into, or null to not log the
+     *                   hands
+     * @param checkpoint Called with the number of hands simulated so far at each
+     *                   checkpoint, e.g. to report the progress from stats, or
+     *                   null
+     * @return Number of hands simulated
+     * @throws InterruptedException If interrupted while waiting for the workers
+     */
+    public static int runUntilConverged(long seed, int numPlayers, int maxHands, double halfWidth, int numThreads,
+            StatsLogger stats, IndexedHandLogger logs, IntConsumer checkpoint) throws InterruptedException {
+        int numHands = 0;
+        while (numHands < maxHands) {
+            int to = Math.min(maxHands, numHands + CHECKPOINT_SIZE);
+            run(seed, numPlayers, numHands, to, numThreads, stats, logs);
+            numHands = to;
+
+            if (checkpoint != null) {
+                checkpoint.accept(numHands);
+            }
+            if (stats.hasConverged(StatsLog.Z_95, halfWidth)) {
+                break;
+            }
         }
+        return numHands;
+    }
 
-        for (int i = 0; i < num_hands; i++) {
-            Utils.printProgress(i, num_hands);
+    /**
+     * Simulates hands 0 to numHands - 1 of a seed on several threads.
+     *
+     * @param seed       Seed of the IndexedDeck the hands are dealt from
+     * @param numPlayers Number of players at the table
+     * @param numHands   Number of hands to simulate
+     * @param numThreads Number of worker threads
+     * @param stats      Logger the stats of the hands are merged into
+     * @param logs       Logger the hands are merged into, in the order they were
+     *                   dealt, or null to not log the hands
+     * @throws InterruptedException If interrupted while waiting for the workers
+     */
+    public static void run(long seed, int numPlayers, int numHands, int numThreads, StatsLogger stats,
+            IndexedHandLogger logs) throws InterruptedException {
+        run(seed, numPlayers, 0, numHands, numThreads, stats, logs);
+    }
+
+    /**
+     * Simulates hands fromHand to toHand - 1 of a seed on several threads.
+     */
+    private static void run(long seed, int numPlayers, int fromHand, int toHand, int numThreads, StatsLogger stats,
+            IndexedHandLogger logs) throws InterruptedException {
+        int numChunks = (toHand - fromHand + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        AtomicInteger nextChunk = new AtomicInteger();
+        IndexedHandLogger[] chunkLogs = new IndexedHandLogger[numChunks]; // merged in chunk order
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            ArrayList<Future<StatsLogger>> workers = new ArrayList<>();
+            for (int i = 0; i < numThreads; i++) {
+                workers.add(executor.submit(() -> {
+                    IndexedDeck deck = new IndexedDeck(seed);
+                    Dealer dealer = new Dealer(deck);
+                    StatsLogger shard = new StatsLogger();
+                    for (int j = 0; j < numPlayers; j++) {
+                        dealer.addPlayer(new Player(j));
+                    }
 
-            // Start a new hand
-            dealer.shuffle(); // shuffle the deck
-            dealer.deal(); // deal 2 cards to each player
-            dealer.dealFlop(); // deal 3 cards to the community
-            dealer.dealTurn(); // deal 1 card to the community
-            dealer.dealRiver(); // deal 1 card to the community
+                    for (int chunk = nextChunk.getAndIncrement(); chunk < numChunks; chunk = nextChunk
+                            .getAndIncrement()) {
+                        IndexedHandLogger chunkLog = logs == null ? null : new IndexedHandLogger(deck);
+                        int from = fromHand + chunk * CHUNK_SIZE;
+                        int to = Math.min(toHand, from + CHUNK_SIZE);
 
-            // Get the winners
-            ArrayList<Player> winners = dealer.determineWinner();
-            logs.addLog(dealer.getCommunityCards(), dealer.getPlayers(), winners);
-            stats.addLog(dealer.getCommunityCards(), dealer.getPlayers(), winners);
+                        deck.seek(from);
+                        for (int hand = from; hand < to; hand++) {
+                            dealer.dealHand();
+                            int winners = dealer.determineWinnerMask();
+                            shard.addLog(dealer.getCommunityCardsView(), dealer.getPlayersView(), winners);
+                            if (chunkLog != null) {
+                                chunkLog.addLog(dealer.getCommunityCardsView(), dealer.getPlayersView(), winners);
+                            }
+                        }
+                        chunkLogs[chunk] = chunkLog;
+                    }
+                    return shard;
+                }));
+            }
+
+            for (Future<StatsLogger> worker : workers) {
+                stats.merge(worker.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
 
-        logs.printLogsToFile();
-        stats.printStatsToFile();
+        if (logs != null) {
+            for (IndexedHandLogger chunkLog : chunkLogs) {
+                logs.merge(chunkLog);
+            }
+        }
     }
 }
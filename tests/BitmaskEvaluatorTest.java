@@ -0,0 +1,158 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.BitmaskEvaluator;
+import main.Card;
+import main.Hand;
+import main.HandRank;
+import main.HandRankEvaluator;
+import main.HandStrength;
+import main.Rank;
+import main.Suit;
+
+public class BitmaskEvaluatorTest {
+
+    @Test
+    public void testRoyalFlush() {
+        int value = evaluate(
+                Card.get(Rank.ACE, Suit.CLUBS),
+                Card.get(Rank.KING, Suit.CLUBS),
+                Card.get(Rank.QUEEN, Suit.CLUBS),
+                Card.get(Rank.JACK, Suit.CLUBS),
+                Card.get(Rank.TEN, Suit.CLUBS),
+                Card.get(Rank.NINE, Suit.CLUBS),
+                Card.get(Rank.TWO, Suit.DIAMONDS));
+
+        assertEquals(HandRank.ROYAL_FLUSH, HandStrength.getHandRank(value));
+    }
+
+    @Test
+    public void testStraightFlush_Wheel() {
+        int value = evaluate(
+                Card.get(Rank.ACE, Suit.HEARTS),
+                Card.get(Rank.TWO, Suit.HEARTS),
+                Card.get(Rank.THREE, Suit.HEARTS),
+                Card.get(Rank.FOUR, Suit.HEARTS),
+                Card.get(Rank.FIVE, Suit.HEARTS),
+                Card.get(Rank.KING, Suit.HEARTS),
+                Card.get(Rank.ACE, Suit.SPADES));
+
+        assertEquals(HandRank.STRAIGHT_FLUSH, HandStrength.getHandRank(value));
+    }
+
+    @Test
+    public void testStraight_WheelLosesToSixHigh() {
+        int wheel = evaluate(
+                Card.get(Rank.ACE, Suit.HEARTS),
+                Card.get(Rank.TWO, Suit.SPADES),
+                Card.get(Rank.THREE, Suit.HEARTS),
+                Card.get(Rank.FOUR, Suit.CLUBS),
+                Card.get(Rank.FIVE, Suit.HEARTS),
+                Card.get(Rank.KING, Suit.DIAMONDS),
+                Card.get(Rank.NINE, Suit.SPADES));
+        int sixHigh = evaluate(
+                Card.get(Rank.SIX, Suit.HEARTS),
+                Card.get(Rank.TWO, Suit.SPADES),
+                Card.get(Rank.THREE, Suit.HEARTS),
+                Card.get(Rank.FOUR, Suit.CLUBS),
+                Card.get(Rank.FIVE, Suit.HEARTS),
+                Card.get(Rank.KING, Suit.DIAMONDS),
+                Card.get(Rank.NINE, Suit.SPADES));
+
+        assertEquals(HandRank.STRAIGHT, HandStrength.getHandRank(wheel));
+        assertEquals(HandRank.STRAIGHT, HandStrength.getHandRank(sixHigh));
+        assertTrue(wheel < sixHigh);
+    }
+
+    @Test
+    public void testFullHouse_TwoThreeOfAKind() {
+        int value = evaluate(
+                Card.get(Rank.NINE, Suit.HEARTS),
+                Card.get(Rank.NINE, Suit.SPADES),
+                Card.get(Rank.NINE, Suit.CLUBS),
+                Card.get(Rank.FOUR, Suit.CLUBS),
+                Card.get(Rank.FOUR, Suit.HEARTS),
+                Card.get(Rank.FOUR, Suit.DIAMONDS),
+                Card.get(Rank.ACE, Suit.SPADES));
+        int higherPair = evaluate(
+                Card.get(Rank.NINE, Suit.HEARTS),
+                Card.get(Rank.NINE, Suit.SPADES),
+                Card.get(Rank.NINE, Suit.CLUBS),
+                Card.get(Rank.FIVE, Suit.CLUBS),
+                Card.get(Rank.FIVE, Suit.HEARTS),
+                Card.get(Rank.TWO, Suit.DIAMONDS),
+                Card.get(Rank.ACE, Suit.SPADES));
+
+        assertEquals(HandRank.FULL_HOUSE, HandStrength.getHandRank(value));
+        assertTrue(value < higherPair);
+    }
+
+    @Test
+    public void testTwoPair_ThreePairsUsesBestKicker() {
+        int value = evaluate(
+                Card.get(Rank.KING, Suit.HEARTS),
+                Card.get(Rank.KING, Suit.SPADES),
+                Card.get(Rank.QUEEN, Suit.CLUBS),
+                Card.get(Rank.QUEEN, Suit.DIAMONDS),
+                Card.get(Rank.JACK, Suit.HEARTS),
+                Card.get(Rank.JACK, Suit.DIAMONDS),
+                Card.get(Rank.TWO, Suit.SPADES));
+        int lowerKicker = evaluate(
+                Card.get(Rank.KING, Suit.HEARTS),
+                Card.get(Rank.KING, Suit.SPADES),
+                Card.get(Rank.QUEEN, Suit.CLUBS),
+                Card.get(Rank.QUEEN, Suit.DIAMONDS),
+                Card.get(Rank.TEN, Suit.HEARTS),
+                Card.get(Rank.THREE, Suit.DIAMONDS),
+                Card.get(Rank.TWO, Suit.SPADES));
+
+        assertEquals(HandRank.TWO_PAIR, HandStrength.getHandRank(value));
+        assertTrue(value > lowerKicker);
+    }
+
+    @Test
+    public void testSameOrderAsHandRankEvaluator() {
+        ArrayList<Card> deck = new ArrayList<>();
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                deck.add(Card.get(rank, suit));
+            }
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            Collections.shuffle(deck, random);
+            ArrayList<Card> cards1 = new ArrayList<>(deck.subList(0, 7));
+            ArrayList<Card> cards2 = new ArrayList<>(deck.subList(7, 14));
+
+            Hand hand1 = new HandRankEvaluator(cards1).evaluate();
+            Hand hand2 = new HandRankEvaluator(cards2).evaluate();
+            int value1 = BitmaskEvaluator.evaluate(cards1);
+            int value2 = BitmaskEvaluator.evaluate(cards2);
+
+            assertEquals(hand1.getStrength(), value1);
+            assertEquals(hand2.getStrength(), value2);
+            assertEquals(hand1.getHandRank(), HandStrength.getHandRank(value1));
+            assertEquals(hand2.getHandRank(), HandStrength.getHandRank(value2));
+
+            int expected = hand1.getHandRank() != hand2.getHandRank()
+                    ? hand1.getHandRank().compareTo(hand2.getHandRank())
+                    : Integer.compare(hand1.getScore(), hand2.getScore());
+            assertEquals(cards1 + " vs " + cards2, Integer.signum(expected),
+                    Integer.signum(Integer.compare(value1, value2)));
+        }
+    }
+
+    private static int evaluate(Card... cards) {
+        return BitmaskEvaluator.evaluate(new ArrayList<>(Arrays.asList(cards)));
+    }
+}
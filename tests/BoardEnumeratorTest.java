@@ -0,0 +1,73 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import main.BoardEnumerator;
+import main.Card;
+import main.CardSet;
+import main.Rank;
+import main.Suit;
+
+public class BoardEnumeratorTest {
+
+    private static final CardSet DEAD = CardSet.of(
+            Card.get(Rank.ACE, Suit.SPADES),
+            Card.get(Rank.KING, Suit.SPADES),
+            Card.get(Rank.QUEEN, Suit.HEARTS),
+            Card.get(Rank.QUEEN, Suit.DIAMONDS));
+
+    @Test
+    public void testCount() {
+        assertEquals(1712304, BoardEnumerator.count(48, 5));
+        assertEquals(1, BoardEnumerator.count(48, 0));
+        assertEquals(0, BoardEnumerator.count(2, 3));
+    }
+
+    @Test
+    public void testNext_AllBoardsOnce() {
+        BoardEnumerator enumerator = new BoardEnumerator(DEAD, 3);
+        HashSet<Long> boards = new HashSet<>();
+        while (enumerator.next()) {
+            long board = enumerator.getBoard();
+            assertEquals(3, Long.bitCount(board));
+            assertEquals(0, board & DEAD.bits());
+            boards.add(board);
+        }
+        assertEquals(BoardEnumerator.count(48, 3), boards.size());
+    }
+
+    @Test
+    public void testRange_SameBoardsAsFullEnumeration() {
+        ArrayList<Long> all = new ArrayList<>();
+        BoardEnumerator enumerator = new BoardEnumerator(DEAD, 4);
+        while (enumerator.next()) {
+            assertEquals(all.size(), enumerator.getIndex());
+            all.add(enumerator.getBoard());
+        }
+
+        long from = 12345;
+        long to = 23456;
+        BoardEnumerator range = new BoardEnumerator(DEAD, 4, from, to);
+        assertEquals(to - from, range.size());
+        for (long i = from; i < to; i++) {
+            assertTrue(range.next());
+            assertEquals((long) all.get((int) i), range.getBoard());
+        }
+        assertFalse(range.next());
+    }
+
+    @Test
+    public void testNext_NoCardsToDeal() {
+        BoardEnumerator enumerator = new BoardEnumerator(DEAD, 0);
+        assertTrue(enumerator.next());
+        assertEquals(0, enumerator.getBoard());
+        assertFalse(enumerator.next());
+    }
+}
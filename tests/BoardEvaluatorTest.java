@@ -0,0 +1,74 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.BitmaskEvaluator;
+import main.BoardEvaluator;
+import main.Card;
+import main.Rank;
+import main.Suit;
+
+public class BoardEvaluatorTest {
+
+    @Test
+    public void testSameStrengthAsBitmaskEvaluator() {
+        ArrayList<Integer> deck = new ArrayList<>();
+        for (int id = 0; id < 52; id++) {
+            deck.add(id);
+        }
+
+        BoardEvaluator evaluator = new BoardEvaluator();
+        int[] board = new int[5];
+        Random random = new Random(3);
+        for (int i = 0; i < 5000; i++) {
+            Collections.shuffle(deck, random);
+            for (int j = 0; j < 5; j++) {
+                board[j] = deck.get(j);
+            }
+            evaluator.setBoard(board, 0, 5);
+
+            // 8 players share the board
+            for (int player = 0; player < 8; player++) {
+                int holeCard1 = deck.get(5 + 2 * player);
+                int holeCard2 = deck.get(6 + 2 * player);
+
+                long cards = 1L << holeCard1 | 1L << holeCard2;
+                for (int id : board) {
+                    cards |= 1L << id;
+                }
+
+                assertEquals(BitmaskEvaluator.evaluate(cards), evaluator.evaluate(holeCard1, holeCard2));
+            }
+        }
+    }
+
+    @Test
+    public void testFourOfAKindOnBoard() {
+        int[] board = new int[] {
+                Card.get(Rank.NINE, Suit.SPADES).id(),
+                Card.get(Rank.NINE, Suit.HEARTS).id(),
+                Card.get(Rank.NINE, Suit.CLUBS).id(),
+                Card.get(Rank.NINE, Suit.DIAMONDS).id(),
+                Card.get(Rank.TWO, Suit.DIAMONDS).id()
+        };
+        BoardEvaluator evaluator = new BoardEvaluator();
+        evaluator.setBoard(board, 0, board.length);
+
+        int aceKicker = evaluator.evaluate(Card.get(Rank.ACE, Suit.SPADES).id(), Card.get(Rank.THREE, Suit.SPADES).id());
+        int kingKicker = evaluator.evaluate(Card.get(Rank.KING, Suit.SPADES).id(), Card.get(Rank.KING, Suit.HEARTS).id());
+
+        long cards = 1L << Card.get(Rank.ACE, Suit.SPADES).id() | 1L << Card.get(Rank.THREE, Suit.SPADES).id();
+        for (int id : board) {
+            cards |= 1L << id;
+        }
+        assertEquals(BitmaskEvaluator.evaluate(cards), aceKicker);
+        assertTrue(aceKicker > kingKicker);
+    }
+}
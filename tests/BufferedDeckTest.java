@@ -0,0 +1,54 @@
+package tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import main.BufferedDeck;
+import main.CardSet;
+import main.IndexedDeck;
+import main.OrderedDeck;
+
+public class BufferedDeckTest {
+
+    @Test
+    public void testDeals_SameAsWrappedDeck() {
+        IndexedDeck expected = new IndexedDeck(4);
+        int[] expectedCards = new int[21];
+        int[] actualCards = new int[21];
+
+        // 3 deals per batch, so the deck goes through several batches
+        try (BufferedDeck deck = new BufferedDeck(new IndexedDeck(4), 21, 3)) {
+            for (int hand = 0; hand < 10; hand++) {
+                expected.reset();
+                expected.draw(expectedCards, 0, 21);
+
+                deck.reset();
+                assertEquals(hand, deck.getDealIndex());
+                assertEquals(21, deck.cardsLeft());
+                actualCards[0] = deck.drawId();
+                deck.draw(actualCards, 1, 20);
+                assertEquals(0, deck.cardsLeft());
+                assertArrayEquals(expectedCards, actualCards);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDraw_MoreThanDeal() {
+        try (BufferedDeck deck = new BufferedDeck(new IndexedDeck(4), 5, 2)) {
+            deck.reset();
+            deck.draw(new int[6], 0, 6);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReset_SourceFails() {
+        OrderedDeck empty = new OrderedDeck();
+        empty.setDeadCards(CardSet.FULL_DECK); // nothing left to deal
+        try (BufferedDeck deck = new BufferedDeck(empty, 5, 2)) {
+            deck.reset();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import main.Card;
+import main.CardSet;
+import main.Rank;
+import main.Suit;
+
+public class CardSetTest {
+
+    private static final Card ACE_SPADES = Card.get(Rank.ACE, Suit.SPADES);
+    private static final Card KING_HEARTS = Card.get(Rank.KING, Suit.HEARTS);
+    private static final Card TWO_DIAMONDS = Card.get(Rank.TWO, Suit.DIAMONDS);
+
+    @Test
+    public void testCardSet_Empty() {
+        assertEquals(0, CardSet.EMPTY.size());
+        assertTrue(CardSet.EMPTY.isEmpty());
+        assertEquals(-1, CardSet.EMPTY.first());
+        assertEquals(52, CardSet.FULL_DECK.size());
+    }
+
+    @Test
+    public void testCardSet_UnionContainsRemove() {
+        CardSet set = CardSet.of(ACE_SPADES).union(CardSet.of(KING_HEARTS, TWO_DIAMONDS));
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(ACE_SPADES));
+        assertTrue(set.contains(KING_HEARTS.id()));
+
+        CardSet removed = set.remove(KING_HEARTS);
+        assertEquals(2, removed.size());
+        assertFalse(removed.contains(KING_HEARTS));
+        assertTrue(set.contains(KING_HEARTS)); // sets are immutable
+    }
+
+    @Test
+    public void testCardSet_Iteration() {
+        CardSet set = CardSet.of(TWO_DIAMONDS, ACE_SPADES, KING_HEARTS);
+
+        ArrayList<Card> cards = new ArrayList<>();
+        for (int id = set.first(); id >= 0; id = set.next(id)) {
+            cards.add(Card.fromId(id));
+        }
+
+        assertEquals(Arrays.asList(ACE_SPADES, KING_HEARTS, TWO_DIAMONDS), cards);
+        assertEquals(cards, set.toList());
+        assertEquals(-1, CardSet.of(Card.get(Rank.ACE, Suit.DIAMONDS)).next(51));
+    }
+
+    @Test
+    public void testCardSet_Equals() {
+        assertEquals(CardSet.of(ACE_SPADES, KING_HEARTS), CardSet.of(KING_HEARTS, ACE_SPADES));
+        assertEquals(CardSet.of(ACE_SPADES, KING_HEARTS).hashCode(), CardSet.of(KING_HEARTS, ACE_SPADES).hashCode());
+    }
+
+    @Test
+    public void testCardSet_Parse() {
+        assertEquals(CardSet.of(ACE_SPADES, KING_HEARTS, TWO_DIAMONDS), CardSet.parse("AsKh2d"));
+        assertEquals(CardSet.of(ACE_SPADES, KING_HEARTS, TWO_DIAMONDS), CardSet.parse("AS, KH 2D"));
+        assertEquals(CardSet.of(Card.get(Rank.TEN, Suit.HEARTS), Card.get(Rank.TEN, Suit.CLUBS)),
+                CardSet.parse("10hTc"));
+        assertEquals(CardSet.EMPTY, CardSet.parse(""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCardSet_ParseDuplicate() {
+        CardSet.parse("AsKhAs");
+    }
+}
@@ -35,4 +35,39 @@ public class CardTest {
         assertNotEquals(c1, c2);
         assertNotSame(c1, c2);
     }
+
+    @Test
+    public void testCard_Id() {
+        assertEquals(0, Card.get(Rank.TWO, Suit.SPADES).id());
+        assertEquals(12, Card.get(Rank.ACE, Suit.SPADES).id());
+        assertEquals(13, Card.get(Rank.TWO, Suit.HEARTS).id());
+        assertEquals(51, Card.get(Rank.ACE, Suit.DIAMONDS).id());
+    }
+
+    @Test
+    public void testCard_FromId() {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                Card card = Card.get(rank, suit);
+                assertSame(card, Card.fromId(card.id()));
+            }
+        }
+    }
+
+    @Test
+    public void testCard_Parse() {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                Card card = Card.get(rank, suit);
+                assertSame(card, Card.parse(card.toString()));
+            }
+        }
+        assertSame(Card.get(Rank.TEN, Suit.HEARTS), Card.parse("Th"));
+        assertSame(Card.get(Rank.ACE, Suit.SPADES), Card.parse(" as "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCard_ParseInvalid() {
+        Card.parse("1s");
+    }
 }
@@ -0,0 +1,220 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import main.BufferedDeck;
+import main.Card;
+import main.CardSet;
+import main.Dealer;
+import main.IndexedDeck;
+import main.PartialShuffleDeck;
+import main.Player;
+import main.Rank;
+import main.Suit;
+
+public class DealerTest {
+
+    private static Dealer newDealer(int numPlayers) {
+        Dealer dealer = new Dealer(new PartialShuffleDeck(3));
+        for (int i = 0; i < numPlayers; i++) {
+            dealer.addPlayer(new Player(i));
+        }
+        return dealer;
+    }
+
+    private static void dealHand(Dealer dealer) {
+        dealer.shuffle();
+        dealer.deal();
+        dealer.dealFlop();
+        dealer.dealTurn();
+        dealer.dealRiver();
+    }
+
+    @Test
+    public void testPins_DealtEveryHandAndNeverDrawn() {
+        Card ace = Card.get(Rank.ACE, Suit.SPADES);
+        Card king = Card.get(Rank.KING, Suit.SPADES);
+        Card[] flop = { Card.get(Rank.TWO, Suit.HEARTS), Card.get(Rank.SEVEN, Suit.CLUBS),
+                Card.get(Rank.KING, Suit.DIAMONDS) };
+
+        Dealer dealer = newDealer(6);
+        dealer.pinHoleCards(2, ace, king);
+        dealer.pinBoard(flop);
+
+        for (int hand = 0; hand < 200; hand++) {
+            dealHand(dealer);
+
+            ArrayList<Player> players = dealer.getPlayers();
+            assertEquals(ace, players.get(2).getCard(0));
+            assertEquals(king, players.get(2).getCard(1));
+            ArrayList<Card> board = dealer.getCommunityCards();
+            for (int i = 0; i < flop.length; i++) {
+                assertEquals(flop[i], board.get(i));
+            }
+
+            // every card dealt is distinct, so pinned cards were never drawn
+            HashSet<Card> dealt = new HashSet<>(board);
+            for (Player player : players) {
+                dealt.add(player.getCard(0));
+                dealt.add(player.getCard(1));
+            }
+            assertEquals(6 * 2 + 5, dealt.size());
+        }
+    }
+
+    @Test
+    public void testSetDeadCards_NeverDealtAndKeptByClearPins() {
+        CardSet dead = CardSet.of(Card.get(Rank.ACE, Suit.HEARTS), Card.get(Rank.TWO, Suit.CLUBS));
+        Dealer dealer = newDealer(6);
+        dealer.setDeadCards(dead);
+        dealer.pinHoleCards(0, Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES));
+        dealer.clearPins();
+
+        for (int hand = 0; hand < 200; hand++) {
+            dealer.dealHand();
+            CardSet dealt = CardSet.of(dealer.getCommunityCards());
+            for (Player player : dealer.getPlayers()) {
+                dealt = dealt.add(player.getCard(0)).add(player.getCard(1));
+            }
+            assertEquals(6 * 2 + 5, dealt.size());
+            assertFalse(dealt.intersects(dead));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPinHoleCards_DeadCard() {
+        Dealer dealer = newDealer(2);
+        dealer.setDeadCards(CardSet.of(Card.get(Rank.ACE, Suit.HEARTS)));
+        dealer.pinHoleCards(0, Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.ACE, Suit.HEARTS));
+    }
+
+    @Test
+    public void testClearPins_DealsRandomCards() {
+        Card ace = Card.get(Rank.ACE, Suit.SPADES);
+        Dealer dealer = newDealer(2);
+        dealer.pinHoleCards(0, ace, Card.get(Rank.ACE, Suit.HEARTS));
+        dealer.clearPins();
+
+        boolean dealtOtherCards = false;
+        for (int hand = 0; hand < 20; hand++) {
+            dealHand(dealer);
+            dealtOtherCards |= dealer.getPlayers().get(0).getCard(0) != ace;
+        }
+        assertEquals(0, dealer.getPinnedCards().size());
+        assertTrue(dealtOtherCards);
+    }
+
+    @Test
+    public void testClearPins_SourceWithoutDeadCards() {
+        // BufferedDeck cannot change its dead cards, nothing was ever pinned
+        try (BufferedDeck deck = new BufferedDeck(new IndexedDeck(5), 2 * 2 + 5)) {
+            Dealer dealer = new Dealer(deck);
+            dealer.addPlayer(new Player(0));
+            dealer.addPlayer(new Player(1));
+            dealer.clearPins();
+            dealer.setDeadCards(CardSet.EMPTY);
+            dealHand(dealer);
+            assertEquals(5, dealer.getCommunityCards().size());
+        }
+    }
+
+    @Test
+    public void testPinHoleCards_SourceWithoutDeadCards() {
+        // the dead cards of a BufferedDeck are set on the wrapped source
+        try (BufferedDeck deck = new BufferedDeck(new IndexedDeck(5), 2 * 2 + 5)) {
+            Dealer dealer = new Dealer(deck);
+            dealer.addPlayer(new Player(0));
+            dealer.addPlayer(new Player(1));
+            try {
+                dealer.pinHoleCards(0, Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.ACE, Suit.HEARTS));
+                fail("Expected an IllegalStateException");
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage().contains("before wrapping"));
+            }
+            try {
+                dealer.pinBoard(Card.get(Rank.TWO, Suit.HEARTS));
+                fail("Expected an IllegalStateException");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+
+            // the failed pins are undone, so the deck still deals
+            assertEquals(CardSet.EMPTY, dealer.getPinnedCards());
+            dealHand(dealer);
+            assertEquals(5, dealer.getCommunityCards().size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPinBoard_CardAlreadyPinned() {
+        Card ace = Card.get(Rank.ACE, Suit.SPADES);
+        Dealer dealer = newDealer(2);
+        dealer.pinHoleCards(0, ace, Card.get(Rank.ACE, Suit.HEARTS));
+        dealer.pinBoard(Card.get(Rank.TWO, Suit.HEARTS), ace, Card.get(Rank.FIVE, Suit.CLUBS));
+    }
+
+    @Test
+    public void testDetermineWinner_PinnedShowdown() {
+        Dealer dealer = newDealer(2);
+        dealer.pinHoleCards(0, Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.ACE, Suit.HEARTS));
+        dealer.pinHoleCards(1, Card.get(Rank.SEVEN, Suit.CLUBS), Card.get(Rank.TWO, Suit.DIAMONDS));
+        dealer.pinBoard(Card.get(Rank.ACE, Suit.CLUBS), Card.get(Rank.ACE, Suit.DIAMONDS),
+                Card.get(Rank.KING, Suit.SPADES), Card.get(Rank.NINE, Suit.HEARTS), Card.get(Rank.FOUR, Suit.CLUBS));
+
+        dealHand(dealer);
+        ArrayList<Player> winners = dealer.determineWinner();
+        assertEquals(1, winners.size());
+        assertEquals(0, winners.get(0).getPlayerid());
+    }
+
+    @Test
+    public void testDealHand_SameCardsAsStepByStep() {
+        Dealer stepByStep = new Dealer(new IndexedDeck(21));
+        Dealer bulk = new Dealer(new IndexedDeck(21));
+        for (int i = 0; i < 5; i++) {
+            stepByStep.addPlayer(new Player(i));
+            bulk.addPlayer(new Player(i));
+        }
+        stepByStep.pinHoleCards(1, Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES));
+        bulk.pinHoleCards(1, Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES));
+        stepByStep.pinBoard(Card.get(Rank.TWO, Suit.HEARTS));
+        bulk.pinBoard(Card.get(Rank.TWO, Suit.HEARTS));
+
+        for (int hand = 0; hand < 50; hand++) {
+            dealHand(stepByStep);
+            bulk.dealHand();
+
+            assertEquals(stepByStep.getCommunityCards(), bulk.getCommunityCards());
+            for (int seat = 0; seat < 5; seat++) {
+                Player expected = stepByStep.getPlayers().get(seat);
+                Player actual = bulk.getPlayers().get(seat);
+                assertEquals(expected.getCard(0), actual.getCard(0));
+                assertEquals(expected.getCard(1), actual.getCard(1));
+            }
+        }
+    }
+
+    @Test
+    public void testDetermineWinnerMask_SplitPot() {
+        Dealer dealer = newDealer(3);
+        dealer.pinHoleCards(0, Card.get(Rank.TWO, Suit.SPADES), Card.get(Rank.THREE, Suit.HEARTS));
+        dealer.pinHoleCards(1, Card.get(Rank.KING, Suit.CLUBS), Card.get(Rank.KING, Suit.DIAMONDS));
+        dealer.pinHoleCards(2, Card.get(Rank.TWO, Suit.HEARTS), Card.get(Rank.THREE, Suit.SPADES));
+        dealer.pinBoard(Card.get(Rank.TEN, Suit.SPADES), Card.get(Rank.JACK, Suit.SPADES),
+                Card.get(Rank.QUEEN, Suit.HEARTS), Card.get(Rank.KING, Suit.HEARTS), Card.get(Rank.ACE, Suit.CLUBS));
+
+        dealer.dealHand();
+        int winners = dealer.determineWinnerMask();
+        assertEquals(0b111, winners); // everyone plays the broadway straight on the board
+        assertEquals(3, dealer.getPlayers(winners).size());
+        assertEquals(dealer.getPlayers(winners), dealer.determineWinner());
+    }
+}
@@ -0,0 +1,111 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import equity.EquityCache;
+import equity.EquityCalculator;
+import equity.EquityResult;
+import main.Card;
+import main.CardSet;
+import main.Rank;
+import main.Suit;
+
+public class EquityCacheTest {
+
+    private static final CardSet ACE_KING_SPADES = CardSet.of(Card.get(Rank.ACE, Suit.SPADES),
+            Card.get(Rank.KING, Suit.SPADES));
+    private static final CardSet ACE_KING_HEARTS = CardSet.of(Card.get(Rank.ACE, Suit.HEARTS),
+            Card.get(Rank.KING, Suit.HEARTS));
+    private static final CardSet FLOP = CardSet.of(Card.get(Rank.TEN, Suit.SPADES), Card.get(Rank.SEVEN, Suit.CLUBS),
+            Card.get(Rank.TWO, Suit.SPADES));
+    private static final CardSet FLOP_HEARTS = CardSet.of(Card.get(Rank.TEN, Suit.HEARTS),
+            Card.get(Rank.SEVEN, Suit.DIAMONDS), Card.get(Rank.TWO, Suit.HEARTS));
+
+    private static EquityCache newCache(int maxEntries) {
+        return new EquityCache(new EquityCalculator(ForkJoinPool.commonPool(), 0, 2000, 1), maxEntries);
+    }
+
+    @Test
+    public void testCalculate_SuitPermutationsHit() {
+        EquityCache cache = newCache(16);
+        EquityResult result = cache.calculate(ACE_KING_SPADES, 1, FLOP, CardSet.EMPTY);
+        assertSame(result, cache.calculate(ACE_KING_SPADES, 1, FLOP, CardSet.EMPTY));
+        assertSame(result, cache.calculate(ACE_KING_HEARTS, 1, FLOP_HEARTS, CardSet.EMPTY));
+
+        // not the same situation: the flush draw is gone
+        cache.calculate(ACE_KING_HEARTS, 1, FLOP, CardSet.EMPTY);
+        // nor the same number of opponents
+        cache.calculate(ACE_KING_SPADES, 2, FLOP, CardSet.EMPTY);
+
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testCalculate_EvictsLeastRecentlyUsed() {
+        EquityCache cache = newCache(2);
+        EquityResult first = cache.calculate(ACE_KING_SPADES, 1);
+        cache.calculate(ACE_KING_SPADES, 2);
+        cache.calculate(ACE_KING_SPADES, 1); // now the most recently used
+        cache.calculate(ACE_KING_SPADES, 3); // evicts 2 opponents
+
+        assertEquals(1, cache.getEvictions());
+        assertSame(first, cache.calculate(ACE_KING_HEARTS, 1));
+        assertEquals(2, cache.getHits());
+        cache.calculate(ACE_KING_SPADES, 2);
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testCalculate_DeadCardsAreNotCached() {
+        EquityCache cache = newCache(16);
+        CardSet dead = CardSet.of(Card.get(Rank.QUEEN, Suit.SPADES));
+        cache.calculate(ACE_KING_SPADES, 1, FLOP, dead);
+        cache.calculate(ACE_KING_SPADES, 1, FLOP, dead);
+
+        assertEquals(0, cache.getHits() + cache.getMisses());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCalculate_ConcurrentQueriesComputeOnce() throws InterruptedException {
+        EquityCache cache = newCache(16);
+        ArrayList<Thread> threads = new ArrayList<>();
+        EquityResult[] results = new EquityResult[8];
+        for (int i = 0; i < results.length; i++) {
+            int index = i;
+            CardSet holeCards = i % 2 == 0 ? ACE_KING_SPADES : ACE_KING_HEARTS;
+            threads.add(new Thread(() -> results[index] = cache.calculate(holeCards, 3)));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(results.length - 1, cache.getHits());
+        for (EquityResult result : results) {
+            assertSame(results[0], result);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCalculate_InvalidQueryIsNotCached() {
+        EquityCache cache = newCache(16);
+        try {
+            cache.calculate(ACE_KING_SPADES, 1, ACE_KING_SPADES, CardSet.EMPTY);
+        } finally {
+            assertEquals(0, cache.size());
+        }
+    }
+}
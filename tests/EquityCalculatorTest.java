@@ -0,0 +1,151 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import equity.EquityCalculator;
+import equity.EquityResult;
+import main.Card;
+import main.CardSet;
+import main.Rank;
+import main.Suit;
+
+public class EquityCalculatorTest {
+
+    private static final CardSet ACE_KING_SUITED = CardSet.of(Card.get(Rank.ACE, Suit.SPADES),
+            Card.get(Rank.KING, Suit.SPADES));
+    private static final CardSet FLOP = CardSet.of(Card.get(Rank.TEN, Suit.SPADES), Card.get(Rank.SEVEN, Suit.HEARTS),
+            Card.get(Rank.TWO, Suit.SPADES));
+
+    private static EquityCalculator newCalculator(long exactThreshold, int numSamples) {
+        return new EquityCalculator(ForkJoinPool.commonPool(), exactThreshold, numSamples, 1);
+    }
+
+    @Test
+    public void testCalculate_PreflopSampled() {
+        EquityResult result = newCalculator(EquityCalculator.DEFAULT_EXACT_THRESHOLD, 200000)
+                .calculate(ACE_KING_SUITED, 1);
+
+        assertFalse(result.isExact());
+        assertEquals(200000, result.getNumDeals());
+        assertEquals(0.670, result.getEquity(), 0.01); // AKs vs a random hand
+        assertTrue(result.getStandardError() < 0.002);
+        assertEquals(1, result.getWinProbability() + result.getTieProbability() + result.getLossProbability(), 1e-9);
+    }
+
+    @Test
+    public void testCalculate_ExactMatchesSampled() {
+        for (int numOpponents = 1; numOpponents <= 2; numOpponents++) {
+            // 2 opponents are only enumerated on the river
+            CardSet board = numOpponents == 1 ? FLOP
+                    : FLOP.add(Card.get(Rank.KING, Suit.HEARTS)).add(Card.get(Rank.FOUR, Suit.CLUBS));
+            EquityResult exact = newCalculator(EquityCalculator.DEFAULT_EXACT_THRESHOLD, 1)
+                    .calculate(ACE_KING_SUITED, numOpponents, board, CardSet.EMPTY);
+            EquityResult sampled = newCalculator(0, 100000)
+                    .calculate(ACE_KING_SUITED, numOpponents, board, CardSet.EMPTY);
+
+            assertTrue(exact.isExact());
+            assertFalse(sampled.isExact());
+            assertEquals(exact.getEquity(), sampled.getEquity(), 4 * sampled.getStandardError());
+        }
+    }
+
+    @Test
+    public void testCalculate_ExactDealCount() {
+        // 47 choose 2 turn and river cards, times 45 choose 2 opponent hands
+        EquityResult result = newCalculator(EquityCalculator.DEFAULT_EXACT_THRESHOLD, 1)
+                .calculate(ACE_KING_SUITED, 1, FLOP, CardSet.EMPTY);
+        assertEquals(1081 * 990, result.getNumDeals());
+
+        // a dead card leaves 46 choose 2 completions and 44 choose 2 hands
+        result = newCalculator(EquityCalculator.DEFAULT_EXACT_THRESHOLD, 1).calculate(ACE_KING_SUITED, 1, FLOP,
+                CardSet.of(Card.get(Rank.QUEEN, Suit.SPADES)));
+        assertEquals(1035 * 946, result.getNumDeals());
+    }
+
+    @Test
+    public void testCalculate_RiverNuts() {
+        CardSet board = FLOP.add(Card.get(Rank.QUEEN, Suit.SPADES)).add(Card.get(Rank.JACK, Suit.SPADES));
+        EquityResult result = new EquityCalculator().calculate(ACE_KING_SUITED, 2, board, CardSet.EMPTY);
+
+        assertTrue(result.isExact());
+        assertEquals(1.0, result.getEquity(), 1e-12); // royal flush
+        assertEquals(0, result.getLosses());
+    }
+
+    @Test
+    public void testCalculateWithin_Deadline() {
+        EquityCalculator calculator = newCalculator(EquityCalculator.DEFAULT_EXACT_THRESHOLD, 1);
+        long start = System.nanoTime();
+        EquityResult result = calculator.calculateWithin(ACE_KING_SUITED, 3, FLOP, CardSet.EMPTY,
+                Duration.ofMillis(20), 0);
+        long elapsed = System.nanoTime() - start;
+
+        assertFalse(result.isExact());
+        assertTrue(result.getNumDeals() > 0);
+        assertTrue(result.getStandardError() > 0);
+        assertTrue("took " + elapsed + " ns", elapsed < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void testCalculateWithin_TargetError() {
+        EquityResult exact = newCalculator(EquityCalculator.DEFAULT_EXACT_THRESHOLD, 1).calculate(ACE_KING_SUITED, 1,
+                FLOP, CardSet.EMPTY);
+        EquityResult result = newCalculator(EquityCalculator.DEFAULT_EXACT_THRESHOLD, 1).calculateWithin(
+                ACE_KING_SUITED, 1, FLOP, CardSet.EMPTY, Duration.ofSeconds(30), 0.005);
+
+        assertTrue(result.getStandardError() <= 0.005);
+        assertTrue(result.getNumDeals() < 100000); // stopped long before the deadline
+        assertEquals(exact.getEquity(), result.getEquity(), 5 * result.getStandardError());
+    }
+
+    @Test
+    public void testCalculateAnytime_CancelStopsWorkers() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            EquityCalculator calculator = new EquityCalculator(pool, 0, 1, 1);
+            CompletableFuture<EquityResult> future = calculator.calculateAnytime(ACE_KING_SUITED, 1, CardSet.EMPTY,
+                    CardSet.EMPTY, Duration.ofMinutes(10), 0);
+            assertTrue(future.cancel(true));
+            assertTrue(pool.awaitQuiescence(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCalculateAnytime_OverlappingQueriesBothSample() throws Exception {
+        // a single thread, so the queries have to take turns
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            EquityCalculator calculator = new EquityCalculator(pool, 0, 1, 1);
+            for (int round = 0; round < 3; round++) {
+                CompletableFuture<EquityResult> first = calculator.calculateAnytime(ACE_KING_SUITED, 1,
+                        CardSet.EMPTY, CardSet.EMPTY, Duration.ofMillis(100), 0);
+                CompletableFuture<EquityResult> second = calculator.calculateAnytime(ACE_KING_SUITED, 2, FLOP,
+                        CardSet.EMPTY, Duration.ofMillis(100), 0);
+
+                long firstDeals = first.get(5, TimeUnit.SECONDS).getNumDeals();
+                long secondDeals = second.get(5, TimeUnit.SECONDS).getNumDeals();
+                assertTrue("first query dealt " + firstDeals, firstDeals >= 1000);
+                assertTrue("second query dealt " + secondDeals, secondDeals >= 1000);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCalculate_OverlappingCards() {
+        new EquityCalculator().calculate(ACE_KING_SUITED, 1, CardSet.of(Card.get(Rank.ACE, Suit.SPADES)),
+                CardSet.EMPTY);
+    }
+}
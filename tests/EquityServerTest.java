@@ -0,0 +1,107 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import equity.EquityCalculator;
+import server.EquityServer;
+
+public class EquityServerTest {
+
+    private static EquityServer server;
+    private static HttpClient client;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = new EquityServer(0, new EquityCalculator(ForkJoinPool.commonPool(), 2000000, 5000, 1), 64);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.close();
+    }
+
+    private static HttpResponse<String> get(String pathAndQuery) throws IOException, InterruptedException {
+        URI uri = URI.create("http://localhost:" + server.getPort() + pathAndQuery);
+        return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testEvaluate() throws Exception {
+        HttpResponse<String> response = get("/evaluate?cards=AsKsQsJsTs2h3d");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body(), response.body().contains("\"rank\":\"ROYAL_FLUSH\""));
+
+        response = get("/evaluate?cards=2c2d7h9sKd");
+        assertTrue(response.body(), response.body().contains("\"rank\":\"PAIR\""));
+    }
+
+    @Test
+    public void testEquity_RiverNuts() throws Exception {
+        HttpResponse<String> response = get("/equity?hole=AsKs&board=QsJsTs7h2d&opponents=2");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body(), response.body().contains("\"equity\":1.0"));
+        assertTrue(response.body(), response.body().contains("\"exact\":true"));
+    }
+
+    @Test
+    public void testEquity_Budget() throws Exception {
+        HttpResponse<String> response = get("/equity?hole=AsKs&board=Ts7h2s&budgetMs=20");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body(), response.body().contains("\"exact\":false"));
+    }
+
+    @Test
+    public void testInvalidRequests() throws Exception {
+        assertEquals(400, get("/evaluate?cards=AsKs").statusCode());
+        assertEquals(400, get("/evaluate?cards=AsXx2c3d4h").statusCode());
+        assertEquals(400, get("/equity?hole=AsKs&board=As7h2s").statusCode());
+        assertEquals(400, get("/equity").statusCode());
+        assertEquals(400, get("/equity?hole=AsKs&budgetMs=2147483647").statusCode());
+        assertEquals(400, get("/equity?hole=AsKs&budgetMs=0").statusCode());
+
+        HttpRequest post = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/stats"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build();
+        assertEquals(405, client.send(post, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void testEvaluate_ConcurrentRequests() throws Exception {
+        AtomicInteger numStraightFlushes = new AtomicInteger();
+        ArrayList<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    for (int j = 0; j < 10; j++) {
+                        String body = get("/evaluate?cards=9h8h7h6h5h").body();
+                        if (body.contains("\"rank\":\"STRAIGHT_FLUSH\"")) {
+                            numStraightFlushes.incrementAndGet();
+                        }
+                    }
+                } catch (IOException | InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(320, numStraightFlushes.get());
+        assertTrue(get("/stats").body().contains("\"evaluations\":"));
+    }
+}
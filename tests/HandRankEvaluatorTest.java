@@ -3,6 +3,7 @@ package tests;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -10,6 +11,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -704,6 +706,60 @@ public class HandRankEvaluatorTest {
                 assertEquals(buildHashet(oracle), buildHashet(hand.getBestHand()));
         }
 
+        @Test
+        public void testEvaluateCardIds_MatchesEvaluate() {
+                ArrayList<Card> deck = new ArrayList<>();
+                for (Suit suit : Suit.values()) {
+                        for (Rank rank : Rank.values()) {
+                                deck.add(Card.get(rank, suit));
+                        }
+                }
+
+                Random random = new Random(7);
+                int[] cardIds = new int[7];
+                for (int i = 0; i < 5000; i++) {
+                        Collections.shuffle(deck, random);
+                        ArrayList<Card> hand = new ArrayList<>(deck.subList(0, 7));
+                        for (int j = 0; j < 7; j++) {
+                                cardIds[j] = hand.get(j).id();
+                        }
+
+                        Hand expected = new HandRankEvaluator(hand).evaluate();
+                        int strength = HandRankEvaluator.evaluate(cardIds, 0, 7);
+                        Hand built = HandRankEvaluator.buildHand(strength, cardIds, 0, 7);
+
+                        assertEquals(expected.getStrength(), strength);
+                        assertEquals(expected.getHandRank(), built.getHandRank());
+                        assertEquals(expected.getScore(), built.getScore());
+                        assertEquals(5, built.getBestHand().size());
+                        assertTrue(hand.containsAll(built.getBestHand()));
+                        assertEquals(strength, built.getStrength());
+                }
+        }
+
+        @Test
+        public void testBuildHand_Wheel() {
+                Card[] initialCards = new Card[] {
+                                Card.get(Rank.ACE, Suit.CLUBS),
+                                Card.get(Rank.TWO, Suit.DIAMONDS),
+                                Card.get(Rank.THREE, Suit.CLUBS),
+                                Card.get(Rank.FOUR, Suit.HEARTS),
+                                Card.get(Rank.FIVE, Suit.SPADES),
+                                Card.get(Rank.KING, Suit.SPADES),
+                                Card.get(Rank.KING, Suit.HEARTS)
+                };
+                int[] cardIds = new int[initialCards.length];
+                for (int i = 0; i < initialCards.length; i++) {
+                        cardIds[i] = initialCards[i].id();
+                }
+
+                int strength = HandRankEvaluator.evaluate(cardIds, 0, cardIds.length);
+                Hand hand = HandRankEvaluator.buildHand(strength, cardIds, 0, cardIds.length);
+
+                assertEquals(HandRank.STRAIGHT, hand.getHandRank());
+                assertEquals(buildHashet(Arrays.copyOf(initialCards, 5)), buildHashet(hand.getBestHand()));
+        }
+
         private HandRankEvaluator getHandRankEvaluator(Card[] initialCards) throws Exception {
                 this.populateCards(initialCards);
                 HandRankEvaluator evaluator = new HandRankEvaluator(new ArrayList<Card>(this.cards));
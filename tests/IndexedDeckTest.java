@@ -0,0 +1,86 @@
+package tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import logging.HandLog;
+import logging.IndexedHandLogger;
+import main.Dealer;
+import main.IndexedDeck;
+import main.Player;
+
+public class IndexedDeckTest {
+
+    @Test
+    public void testSeek_SameDealAsSequential() {
+        IndexedDeck sequential = new IndexedDeck(11);
+        int[][] deals = new int[20][];
+        for (int hand = 0; hand < deals.length; hand++) {
+            sequential.reset();
+            assertEquals(hand, sequential.getHandIndex());
+            deals[hand] = drawAll(sequential);
+        }
+
+        IndexedDeck random = new IndexedDeck(11);
+        for (int hand : new int[] { 17, 3, 0, 19, 3 }) {
+            random.seek(hand);
+            random.reset();
+            assertArrayEquals(deals[hand], drawAll(random));
+        }
+
+        assertFalse(Arrays.equals(deals[0], deals[1]));
+    }
+
+    @Test
+    public void testDraw_AllCardsOnce() {
+        IndexedDeck deck = new IndexedDeck(5);
+        deck.reset();
+        HashSet<Integer> drawn = new HashSet<>();
+        for (int id : drawAll(deck)) {
+            drawn.add(id);
+        }
+        assertEquals(52, drawn.size());
+    }
+
+    @Test
+    public void testReplay_SameLogAsPlayedHand() {
+        IndexedDeck deck = new IndexedDeck(99);
+        Dealer dealer = new Dealer(deck);
+        for (int i = 0; i < 6; i++) {
+            dealer.addPlayer(new Player(i));
+        }
+        IndexedHandLogger logger = new IndexedHandLogger(deck);
+
+        ArrayList<String> played = new ArrayList<>();
+        for (int hand = 0; hand < 10; hand++) {
+            dealer.shuffle();
+            dealer.deal();
+            dealer.dealFlop();
+            dealer.dealTurn();
+            dealer.dealRiver();
+            ArrayList<Player> winners = dealer.determineWinner();
+            played.add(new HandLog(dealer.getCommunityCards(), dealer.getPlayers(), winners).toString());
+            logger.addLog(dealer.getCommunityCards(), dealer.getPlayers(), winners);
+        }
+
+        assertEquals(10, logger.getNumLogs());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(played.get(i), logger.getLog(i).toString());
+        }
+    }
+
+    private static int[] drawAll(IndexedDeck deck) {
+        int[] cards = new int[deck.cardsLeft()];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = deck.drawId();
+        }
+        return cards;
+    }
+}
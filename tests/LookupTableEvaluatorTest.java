@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import main.BitmaskEvaluator;
+import main.Card;
+import main.CardSet;
+import main.LookupTableEvaluator;
+import main.Rank;
+import main.Suit;
+
+public class LookupTableEvaluatorTest {
+
+    private static Path path;
+    private static LookupTableEvaluator evaluator;
+
+    @BeforeClass
+    public static void generateTable() throws IOException {
+        path = Files.createTempFile("lookup", ".table");
+        LookupTableEvaluator.generate(path);
+        evaluator = LookupTableEvaluator.load(path);
+    }
+
+    @AfterClass
+    public static void deleteTable() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testEvaluate_MatchesBitmaskEvaluator() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 200000; i++) {
+            long cards = 0;
+            while (Long.bitCount(cards) < 7) {
+                cards |= 1L << random.nextInt(52);
+            }
+
+            CardSet hand = CardSet.of(cards);
+            ArrayList<Card> shuffled = hand.toList();
+            for (int j = shuffled.size() - 1; j > 0; j--) {
+                shuffled.set(j, shuffled.set(random.nextInt(j + 1), shuffled.get(j)));
+            }
+
+            int expected = BitmaskEvaluator.evaluate(cards);
+            assertEquals(hand.toString(), expected, evaluator.evaluate(hand));
+            assertEquals(shuffled.toString(), expected, evaluator.evaluate(shuffled));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvaluate_RejectsDuplicateCards() {
+        // the 2 of clubs cannot make a flush, so the table alone would not notice
+        evaluator.evaluate(Arrays.asList(
+                Card.get(Rank.ACE, Suit.HEARTS),
+                Card.get(Rank.KING, Suit.SPADES),
+                Card.get(Rank.TWO, Suit.CLUBS),
+                Card.get(Rank.SEVEN, Suit.DIAMONDS),
+                Card.get(Rank.NINE, Suit.HEARTS),
+                Card.get(Rank.JACK, Suit.SPADES),
+                Card.get(Rank.TWO, Suit.CLUBS)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvaluate_RejectsSixCards() {
+        evaluator.evaluate(CardSet.parse("AhKs2c7d9hJs"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoad_RejectsWrongHeader() throws IOException {
+        Path other = Files.createTempFile("lookup", ".table");
+        try {
+            Files.write(other, new byte[64]);
+            LookupTableEvaluator.load(other);
+        } finally {
+            Files.delete(other);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoad_RejectsTruncatedTable() throws IOException {
+        Path truncated = Files.createTempFile("lookup", ".table");
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            Files.write(truncated, Arrays.copyOf(bytes, bytes.length - Integer.BYTES));
+            LookupTableEvaluator.load(truncated);
+        } finally {
+            Files.delete(truncated);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import logging.IndexedHandLogger;
+import logging.StatsLog;
+import logging.StatsLogger;
+import main.HandRank;
+import main.Rank;
+import simulations.MonteCarloSimulation;
+
+public class MonteCarloSimulationTest {
+
+    @Test
+    public void testRun_SameResultsForAnyNumberOfThreads() throws InterruptedException {
+        int numHands = 150000; // 3 chunks, the last one partial
+        StatsLogger stats1 = new StatsLogger();
+        IndexedHandLogger logs1 = new IndexedHandLogger(9);
+        MonteCarloSimulation.run(9, 6, numHands, 1, stats1, logs1);
+
+        StatsLogger stats3 = new StatsLogger();
+        IndexedHandLogger logs3 = new IndexedHandLogger(9);
+        MonteCarloSimulation.run(9, 6, numHands, 3, stats3, logs3);
+
+        assertEquals(numHands, logs1.getNumLogs());
+        assertEquals(numHands, logs3.getNumLogs());
+        for (int i = 0; i < numHands; i += 997) {
+            assertEquals(i, logs3.getHandIndex(i));
+        }
+
+        int numDealt = 0;
+        for (HandRank handRank : HandRank.values()) {
+            StatsLog expected = stats1.getStats(handRank);
+            StatsLog actual = stats3.getStats(handRank);
+            if (expected == null) {
+                assertEquals(null, actual);
+                continue;
+            }
+            assertNotNull(actual);
+            assertEquals(expected.getNumDealt(), actual.getNumDealt());
+            assertEquals(expected.getNumWon(), actual.getNumWon());
+            numDealt += actual.getNumDealt();
+        }
+        assertEquals(numHands * 6, numDealt);
+
+        StatsLog aces1 = stats1.getStats(Rank.ACE, Rank.ACE, false);
+        StatsLog aces3 = stats3.getStats(Rank.ACE, Rank.ACE, false);
+        assertEquals(aces1.getNumDealt(), aces3.getNumDealt());
+        assertEquals(aces1.getNumWon(), aces3.getNumWon());
+    }
+
+    @Test
+    public void testRunUntilConverged_StopsAtMaxHands() throws InterruptedException {
+        StatsLogger stats = new StatsLogger();
+        ArrayList<Integer> checkpoints = new ArrayList<>();
+        int numHands = MonteCarloSimulation.runUntilConverged(2, 6, 50000, 0.001, 2, stats, null, checkpoints::add);
+
+        assertEquals(50000, numHands);
+        assertEquals(Integer.valueOf(50000), checkpoints.get(checkpoints.size() - 1));
+        assertTrue(!stats.hasConverged(StatsLog.Z_95, 0.001));
+        assertTrue(stats.countConverged(StatsLog.Z_95, 0.5) > 0);
+    }
+}
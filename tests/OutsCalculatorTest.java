@@ -0,0 +1,119 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import equity.OutsCalculator;
+import equity.OutsResult;
+import main.Card;
+import main.CardSet;
+import main.HandRank;
+import main.Rank;
+import main.Suit;
+import simulations.ExhaustiveSimulation;
+
+public class OutsCalculatorTest {
+
+    private static final CardSet ACE_KING_SPADES = CardSet.parse("AsKs");
+    private static final CardSet QUEENS = CardSet.parse("QhQd");
+    private static final CardSet FLOP = CardSet.parse("Ts7s2h");
+
+    @Test
+    public void testCalculate_FlushDrawAgainstQueens() {
+        OutsResult result = new OutsCalculator().calculate(ACE_KING_SPADES, FLOP, QUEENS);
+
+        // 9 spades, 3 aces and 3 kings
+        assertEquals(15, result.getOuts().size());
+        assertEquals(9, result.getOuts(HandRank.FLUSH).size());
+        assertEquals(6, result.getOuts(HandRank.PAIR).size());
+        assertEquals(45, result.getNumNextCards());
+        assertEquals(15.0 / 45, result.getNextCardProbability(), 1e-12);
+        assertEquals(HandRank.HIGH_CARD, result.getHandRank());
+        assertEquals(HandRank.FLUSH, result.getHandRank(Card.get(Rank.TWO, Suit.SPADES)));
+        assertEquals(null, result.getHandRank(Card.get(Rank.QUEEN, Suit.HEARTS)));
+    }
+
+    @Test
+    public void testCalculate_RiverOddsMatchExhaustive() {
+        OutsResult result = new OutsCalculator().calculate(ACE_KING_SPADES, FLOP, QUEENS);
+        Card[][] holeCards = { ACE_KING_SPADES.toList().toArray(new Card[0]), QUEENS.toList().toArray(new Card[0]) };
+        long[][] expected = ExhaustiveSimulation.run(holeCards, FLOP.toList().toArray(new Card[0]), 0, Long.MAX_VALUE);
+
+        assertEquals(990, result.getNumRunouts());
+        assertEquals(expected[0][0] / 990.0, result.getWinProbability(), 1e-12);
+        assertEquals(expected[0][1] / 990.0, result.getTieProbability(), 1e-12);
+        assertEquals((expected[0][0] + expected[0][1] / 2.0) / 990, result.getEquity(), 1e-12);
+    }
+
+    @Test
+    public void testCalculate_TurnWithoutOpponents() {
+        OutsResult result = new OutsCalculator().calculate(ACE_KING_SPADES, FLOP.add(Card.get(Rank.NINE, Suit.HEARTS)));
+
+        // 9 spades and 6 overcards, the 10 cards that only pair the board are not
+        // outs
+        assertEquals(46, result.getNumNextCards());
+        assertEquals(9 + 6, result.getOuts().size());
+        assertEquals(6, result.getOuts(HandRank.PAIR).size());
+        assertTrue(!result.getOuts().contains(Card.get(Rank.TEN, Suit.HEARTS)));
+        assertEquals(0, result.getTieOuts().size());
+        assertEquals(15.0 / 46, result.getWinProbability(), 1e-12);
+        assertEquals(9.0 / 46, result.getRankProbability(HandRank.FLUSH), 1e-12);
+    }
+
+    @Test
+    public void testCalculate_TieOuts() {
+        // behind 44, a three gives 33 a set, a jack or a six a straight on the
+        // board for both players
+        CardSet board = CardSet.parse("Tc9d8h7s");
+        OutsResult result = new OutsCalculator().calculate(CardSet.parse("3c3d"), board, CardSet.parse("4c4h"));
+        assertEquals(2, result.getOuts().size());
+        assertEquals(8, result.getTieOuts().size());
+        assertEquals(8.0 / 44, result.getTieProbability(), 1e-12);
+    }
+
+    @Test
+    public void testCalculate_NoOutsWhenAhead() {
+        // queens are ahead on the flop, even though the draw is the favorite
+        OutsResult result = new OutsCalculator().calculate(QUEENS, FLOP, ACE_KING_SPADES);
+        assertEquals(0, result.getOuts().size());
+        assertEquals(0, result.getTieOuts().size());
+        assertTrue(result.getEquity() > 0);
+    }
+
+    @Test
+    public void testCalculate_TiedHandHasNoTieOuts() {
+        // both players keep the same aces whatever the river
+        OutsResult result = new OutsCalculator().calculate(CardSet.parse("AhAd"), CardSet.parse("9c8d7h2s"),
+                CardSet.parse("AcAs"));
+        assertEquals(0, result.getTieOuts().size());
+        assertEquals(0.5, result.getEquity(), 1e-12);
+    }
+
+    @Test
+    public void testCalculate_SubMillisecond() {
+        OutsCalculator calculator = new OutsCalculator();
+        CardSet[] opponents = { QUEENS, CardSet.parse("8c8d") };
+        for (int i = 0; i < 2000; i++) {
+            calculator.calculate(ACE_KING_SPADES, FLOP, opponents);
+        }
+        long start = System.nanoTime();
+        int numCalculations = 1000;
+        for (int i = 0; i < numCalculations; i++) {
+            calculator.calculate(ACE_KING_SPADES, FLOP, opponents);
+        }
+        long average = (System.nanoTime() - start) / numCalculations;
+        assertTrue("took " + average + " ns", average < 1000000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCalculate_PreflopIsInvalid() {
+        new OutsCalculator().calculate(ACE_KING_SPADES, CardSet.EMPTY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCalculate_OverlappingOpponents() {
+        new OutsCalculator().calculate(ACE_KING_SPADES, FLOP, CardSet.parse("QhQd"), CardSet.parse("Qh9c"));
+    }
+}
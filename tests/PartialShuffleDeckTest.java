@@ -0,0 +1,125 @@
+package tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.random.RandomGenerator;
+
+import org.junit.Test;
+
+import main.Card;
+import main.CardSet;
+import main.PartialShuffleDeck;
+import main.RandomStreams;
+
+public class PartialShuffleDeckTest {
+
+    @Test
+    public void testDraw_AllCardsOnce() {
+        PartialShuffleDeck deck = new PartialShuffleDeck(1);
+
+        for (int round = 0; round < 3; round++) {
+            HashSet<Card> drawn = new HashSet<>();
+            for (int i = 0; i < 52; i++) {
+                drawn.add(deck.draw());
+            }
+            assertEquals(52, drawn.size());
+            assertEquals(0, deck.cardsLeft());
+            deck.reset();
+            assertEquals(52, deck.cardsLeft());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDraw_EmptyDeck() {
+        PartialShuffleDeck deck = new PartialShuffleDeck(1);
+        for (int i = 0; i < 53; i++) {
+            deck.drawId();
+        }
+    }
+
+    @Test
+    public void testSetDeadCards_NeverDrawn() {
+        PartialShuffleDeck deck = new PartialShuffleDeck(5);
+        CardSet dead = CardSet.of(Card.fromId(0), Card.fromId(13), Card.fromId(51));
+        deck.setDeadCards(dead);
+        assertEquals(0, deck.cardsLeft());
+
+        for (int round = 0; round < 3; round++) {
+            deck.reset();
+            assertEquals(49, deck.cardsLeft());
+            HashSet<Card> drawn = new HashSet<>();
+            while (deck.cardsLeft() > 0) {
+                Card card = deck.draw();
+                assertTrue(!dead.contains(card));
+                drawn.add(card);
+            }
+            assertEquals(49, drawn.size());
+        }
+    }
+
+    @Test
+    public void testBulkDraw_SameAsDrawId() {
+        PartialShuffleDeck single = new PartialShuffleDeck(8);
+        PartialShuffleDeck bulk = new PartialShuffleDeck(8);
+
+        int[] expected = new int[52];
+        for (int i = 0; i < 52; i++) {
+            expected[i] = single.drawId();
+        }
+        int[] actual = new int[52];
+        bulk.draw(actual, 0, 21);
+        bulk.draw(actual, 21, 31);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBulkDraw_NotEnoughCards() {
+        PartialShuffleDeck deck = new PartialShuffleDeck(8);
+        deck.draw(new int[53], 0, 53);
+    }
+
+    @Test
+    public void testDraw_Uniform() {
+        PartialShuffleDeck deck = new PartialShuffleDeck(2);
+        int[] firstCardCounts = new int[52];
+        int numDeals = 52000;
+        for (int i = 0; i < numDeals; i++) {
+            deck.reset();
+            deck.drawId(); // the first card of a deal should not depend on the previous deal
+            firstCardCounts[deck.drawId()]++;
+        }
+
+        for (int count : firstCardCounts) {
+            assertTrue(count > 800 && count < 1200); // expected 1000 per card
+        }
+    }
+
+    @Test
+    public void testSeed_Reproducible() {
+        PartialShuffleDeck deck1 = new PartialShuffleDeck(42);
+        PartialShuffleDeck deck2 = new PartialShuffleDeck(42);
+        for (int i = 0; i < 1000; i++) {
+            if (deck1.cardsLeft() == 0) {
+                deck1.reset();
+                deck2.reset();
+            }
+            assertEquals(deck1.drawId(), deck2.drawId());
+        }
+    }
+
+    @Test
+    public void testSplit_Reproducible() {
+        RandomStreams streams1 = new RandomStreams(7);
+        RandomStreams streams2 = new RandomStreams(7);
+        for (int worker = 0; worker < 4; worker++) {
+            RandomGenerator random1 = streams1.split();
+            RandomGenerator random2 = streams2.split();
+            for (int i = 0; i < 100; i++) {
+                assertEquals(random1.nextLong(), random2.nextLong());
+            }
+        }
+    }
+}
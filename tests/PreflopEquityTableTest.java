@@ -0,0 +1,92 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import equity.PreflopEquityTable;
+import main.Card;
+import main.Rank;
+import main.Suit;
+
+public class PreflopEquityTableTest {
+
+    private static final int AA = PreflopEquityTable.classIndex(Rank.ACE, Rank.ACE, false);
+    private static final int KK = PreflopEquityTable.classIndex(Rank.KING, Rank.KING, false);
+    private static final int AKS = PreflopEquityTable.classIndex(Rank.ACE, Rank.KING, true);
+
+    private static PreflopEquityTable table;
+
+    @BeforeClass
+    public static void computeTable() {
+        // only the classes of the tests, a full table takes much longer
+        boolean[] classes = new boolean[PreflopEquityTable.NUM_CLASSES];
+        classes[AA] = true;
+        classes[KK] = true;
+        classes[AKS] = true;
+        table = PreflopEquityTable.compute(classes, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void testClassIndex() {
+        assertEquals("AA", PreflopEquityTable.className(AA));
+        assertEquals("AKs", PreflopEquityTable.className(AKS));
+        assertEquals("72o", PreflopEquityTable.className(PreflopEquityTable.classIndex(Rank.TWO, Rank.SEVEN, false)));
+        assertEquals(AKS, PreflopEquityTable.classIndex(Card.get(Rank.KING, Suit.HEARTS), Card.get(Rank.ACE, Suit.HEARTS)));
+        assertEquals(PreflopEquityTable.classIndex(Rank.ACE, Rank.KING, false),
+                PreflopEquityTable.classIndex(Card.get(Rank.KING, Suit.HEARTS), Card.get(Rank.ACE, Suit.SPADES)));
+    }
+
+    @Test
+    public void testGetEquity_AcesAgainstKings() {
+        assertEquals(0.82, table.getEquity(AA, KK), 0.005);
+        assertEquals(1, table.getEquity(AA, KK) + table.getEquity(KK, AA), 1e-6);
+        assertEquals(table.getTieProbability(AA, KK), table.getTieProbability(KK, AA), 1e-6);
+    }
+
+    @Test
+    public void testGetEquity_SameClassIsEven() {
+        assertEquals(0.5, table.getEquity(AA, AA), 1e-6);
+        assertEquals(0.5, table.getEquity(AKS, AKS), 1e-6);
+        assertTrue(table.getTieProbability(AA, AA) > 0.9);
+    }
+
+    @Test
+    public void testGetEquity_ClassNotInPlayIsNaN() {
+        int sevenTwo = PreflopEquityTable.classIndex(Rank.SEVEN, Rank.TWO, false);
+        assertTrue(Double.isNaN(table.getEquity(AA, sevenTwo)));
+    }
+
+    @Test
+    public void testSaveLoad_RoundTrip() throws IOException {
+        Path path = Files.createTempFile("preflop", ".eq");
+        try {
+            table.save(path);
+            PreflopEquityTable loaded = PreflopEquityTable.load(path);
+            assertEquals(table.getEquity(AA, KK), loaded.getEquity(AA, KK), 0);
+            assertEquals(table.getWinProbability(AKS, KK), loaded.getWinProbability(AKS, KK), 0);
+            assertEquals(table.getEquity(Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES),
+                    Card.get(Rank.KING, Suit.HEARTS), Card.get(Rank.KING, Suit.CLUBS)), loaded.getEquity(AKS, KK), 0);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoad_RejectsOtherFiles() throws IOException {
+        Path path = Files.createTempFile("preflop", ".eq");
+        try {
+            Files.write(path, new byte[64]);
+            PreflopEquityTable.load(path);
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import equity.EquityCalculator;
+import equity.Range;
+import equity.RangeEquityResult;
+import main.BoardEvaluator;
+import main.Card;
+import main.CardSet;
+import main.Rank;
+import main.Suit;
+import simulations.ExhaustiveSimulation;
+
+public class RangeEquityTest {
+
+    private static final CardSet FLOP = CardSet.of(Card.get(Rank.TEN, Suit.SPADES), Card.get(Rank.SEVEN, Suit.HEARTS),
+            Card.get(Rank.TWO, Suit.SPADES));
+
+    private static EquityCalculator newCalculator() {
+        return new EquityCalculator(ForkJoinPool.commonPool(), EquityCalculator.DEFAULT_EXACT_THRESHOLD, 20000, 1);
+    }
+
+    @Test
+    public void testCalculate_SingleCombosMatchExhaustive() {
+        Card[][] holeCards = {
+                { Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES) },
+                { Card.get(Rank.QUEEN, Suit.HEARTS), Card.get(Rank.QUEEN, Suit.DIAMONDS) },
+        };
+        Range hero = new Range();
+        hero.set(holeCards[0][0], holeCards[0][1], 1);
+        Range villain = new Range();
+        villain.set(holeCards[1][0], holeCards[1][1], 0.5);
+
+        RangeEquityResult result = newCalculator().calculate(hero, villain, FLOP, CardSet.EMPTY);
+        long[][] expected = ExhaustiveSimulation.run(holeCards, FLOP.toList().toArray(new Card[0]), 0, Long.MAX_VALUE);
+        double numBoards = expected[0][0] + expected[0][1] + expected[0][2];
+
+        assertTrue(result.isExact());
+        assertEquals(expected[0][0] / numBoards, result.getWinProbability(), 1e-12);
+        assertEquals(expected[0][1] / numBoards, result.getTieProbability(), 1e-12);
+    }
+
+    @Test
+    public void testCalculate_CardRemovalMatchesPairwise() {
+        // ranges that share cards, so many pairs of combos conflict
+        Range hero = new Range();
+        hero.setClass(Rank.ACE, Rank.KING, true, 1);
+        hero.setClass(Rank.KING, Rank.KING, false, 0.5);
+        hero.setClass(Rank.SEVEN, Rank.SIX, false, 0.25);
+        Range villain = new Range();
+        villain.setClass(Rank.ACE, Rank.ACE, false, 1);
+        villain.setClass(Rank.ACE, Rank.KING, false, 0.75);
+        villain.setClass(Rank.KING, Rank.KING, false, 1);
+        CardSet turn = FLOP.add(Card.get(Rank.KING, Suit.DIAMONDS));
+
+        RangeEquityResult result = newCalculator().calculate(hero, villain, turn, CardSet.EMPTY);
+
+        // every (hero combo, villain combo, river) with distinct cards, weighted
+        double wins = 0;
+        double ties = 0;
+        double deals = 0;
+        BoardEvaluator evaluator = new BoardEvaluator();
+        int[] board = new int[5];
+        int i = 0;
+        for (int id = turn.first(); id >= 0; id = turn.next(id)) {
+            board[i++] = id;
+        }
+        for (int river = 0; river < 52; river++) {
+            if (turn.contains(river)) {
+                continue;
+            }
+            board[4] = river;
+            evaluator.setBoard(board, 0, 5);
+            CardSet used = turn.add(Card.fromId(river));
+            for (int h = 0; h < Range.NUM_COMBOS; h++) {
+                CardSet heroCards = CardSet.of(Card.fromId(Range.getCard1(h)), Card.fromId(Range.getCard2(h)));
+                if (hero.getWeight(h) == 0 || heroCards.intersects(used)) {
+                    continue;
+                }
+                for (int v = 0; v < Range.NUM_COMBOS; v++) {
+                    CardSet villainCards = CardSet.of(Card.fromId(Range.getCard1(v)), Card.fromId(Range.getCard2(v)));
+                    if (villain.getWeight(v) == 0 || villainCards.intersects(used) || villainCards.intersects(heroCards)) {
+                        continue;
+                    }
+                    double weight = hero.getWeight(h) * villain.getWeight(v);
+                    int heroStrength = evaluator.evaluate(Range.getCard1(h), Range.getCard2(h));
+                    int villainStrength = evaluator.evaluate(Range.getCard1(v), Range.getCard2(v));
+                    deals += weight;
+                    wins += heroStrength > villainStrength ? weight : 0;
+                    ties += heroStrength == villainStrength ? weight : 0;
+                }
+            }
+        }
+
+        assertEquals(wins / deals, result.getWinProbability(), 1e-12);
+        assertEquals(ties / deals, result.getTieProbability(), 1e-12);
+        assertEquals((wins + ties / 2) / deals, result.getEquity(), 1e-12);
+    }
+
+    @Test
+    public void testCalculate_FullRangesAreEven() {
+        RangeEquityResult result = newCalculator().calculate(Range.full(), Range.full(), FLOP, CardSet.EMPTY);
+        assertTrue(result.isExact());
+        assertEquals(0.5, result.getEquity(), 1e-9);
+
+        // the nut flush draw combo is well ahead of a random hand
+        double comboEquity = result.getComboEquity(Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES));
+        assertTrue(comboEquity > 0.6);
+    }
+
+    @Test
+    public void testCalculate_ComboEquityWithSuitSymmetries() {
+        // clubs and diamonds can be swapped on the flop, so only half of the boards
+        // are evaluated for the full ranges, but not for a single combo
+        Card aceClubs = Card.get(Rank.ACE, Suit.CLUBS);
+        Card kingDiamonds = Card.get(Rank.KING, Suit.DIAMONDS);
+        RangeEquityResult full = newCalculator().calculate(Range.full(), Range.full(), FLOP, CardSet.EMPTY);
+        Range single = new Range();
+        single.set(aceClubs, kingDiamonds, 1);
+        RangeEquityResult combo = newCalculator().calculate(single, Range.full(), FLOP, CardSet.EMPTY);
+
+        assertTrue(combo.isExact());
+        assertEquals(combo.getEquity(), full.getComboEquity(aceClubs, kingDiamonds), 1e-12);
+    }
+
+    @Test
+    public void testSetClass_ComboCounts() {
+        Range range = new Range();
+        range.setClass(Rank.ACE, Rank.KING, true, 1);
+        assertEquals(4, range.size());
+        range.setClass(Rank.ACE, Rank.KING, false, 1);
+        assertEquals(16, range.size());
+        range.setClass(Rank.QUEEN, Rank.QUEEN, false, 1);
+        assertEquals(22, range.size());
+        assertEquals(1326, Range.full().size());
+    }
+}
@@ -0,0 +1,51 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import logging.StatsLog;
+
+public class StatsLogTest {
+
+    private static StatsLog newStatsLog(int numDealt, int numWon) {
+        StatsLog statsLog = new StatsLog();
+        for (int i = 0; i < numDealt; i++) {
+            statsLog.addStat(i < numWon);
+        }
+        return statsLog;
+    }
+
+    @Test
+    public void testConfidenceInterval_Wilson() {
+        StatsLog statsLog = newStatsLog(100, 50);
+        double[] interval = statsLog.getConfidenceInterval(StatsLog.Z_95);
+        assertEquals(0.4038, interval[0], 1e-4);
+        assertEquals(0.5962, interval[1], 1e-4);
+
+        // the interval stays within [0, 1] for a win rate of 0
+        interval = newStatsLog(20, 0).getConfidenceInterval(StatsLog.Z_95);
+        assertEquals(0, interval[0], 1e-12);
+        assertEquals(0.1611, interval[1], 1e-4);
+    }
+
+    @Test
+    public void testHalfWidth_ShrinksWithSamples() {
+        double previous = new StatsLog().getHalfWidth(StatsLog.Z_95);
+        for (int n = 10; n <= 100000; n *= 10) {
+            double halfWidth = newStatsLog(n, n / 3).getHalfWidth(StatsLog.Z_95);
+            assertTrue(halfWidth < previous);
+            previous = halfWidth;
+        }
+        assertTrue(previous < 0.003);
+    }
+
+    @Test
+    public void testMerge() {
+        StatsLog statsLog = newStatsLog(10, 4);
+        statsLog.merge(newStatsLog(30, 2));
+        assertEquals(40, statsLog.getNumDealt());
+        assertEquals(6, statsLog.getNumWon());
+    }
+}
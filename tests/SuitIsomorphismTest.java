@@ -0,0 +1,115 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import main.BoardEnumerator;
+import main.Card;
+import main.CardSet;
+import main.Rank;
+import main.Suit;
+import main.SuitIsomorphism;
+import simulations.ExhaustiveSimulation;
+
+public class SuitIsomorphismTest {
+
+    private static final CardSet ACE_KING_SUITED = CardSet.of(Card.get(Rank.ACE, Suit.SPADES),
+            Card.get(Rank.KING, Suit.SPADES));
+
+    @Test
+    public void testSize() {
+        assertEquals(24, new SuitIsomorphism().size());
+        assertEquals(6, new SuitIsomorphism(ACE_KING_SUITED).size());
+        CardSet aceKingOffsuit = CardSet.of(Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.HEARTS));
+        assertEquals(2, new SuitIsomorphism(aceKingOffsuit).size());
+        CardSet aces = CardSet.of(Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.ACE, Suit.HEARTS));
+        assertEquals(4, new SuitIsomorphism(aces).size());
+    }
+
+    @Test
+    public void testMultiplicity_FlopsAddUpToEveryFlop() {
+        SuitIsomorphism symmetries = new SuitIsomorphism();
+        BoardEnumerator flops = new BoardEnumerator(CardSet.EMPTY, 3);
+        long total = 0;
+        int numCanonical = 0;
+        while (flops.next()) {
+            int multiplicity = symmetries.multiplicity(flops.getBoard());
+            total += multiplicity;
+            numCanonical += multiplicity > 0 ? 1 : 0;
+        }
+        assertEquals(BoardEnumerator.count(52, 3), total);
+        assertEquals(1755, numCanonical);
+    }
+
+    @Test
+    public void testMultiplicity_OrbitsAreCountedOnce() {
+        SuitIsomorphism symmetries = new SuitIsomorphism(ACE_KING_SUITED);
+        BoardEnumerator turns = new BoardEnumerator(ACE_KING_SUITED, 4);
+        HashSet<Long> canonical = new HashSet<>();
+        long total = 0;
+        while (turns.next()) {
+            long board = turns.getBoard();
+            int multiplicity = symmetries.multiplicity(board);
+            if (multiplicity > 0) {
+                assertEquals(board, symmetries.canonicalize(board));
+                total += multiplicity;
+            }
+            canonical.add(symmetries.canonicalize(board));
+        }
+        assertEquals(BoardEnumerator.count(50, 4), total);
+
+        int numCanonical = 0;
+        turns = new BoardEnumerator(ACE_KING_SUITED, 4);
+        while (turns.next()) {
+            numCanonical += symmetries.multiplicity(turns.getBoard()) > 0 ? 1 : 0;
+        }
+        assertEquals(canonical.size(), numCanonical);
+    }
+
+    @Test
+    public void testPermute() {
+        SuitIsomorphism symmetries = new SuitIsomorphism();
+        for (int i = 0; i < symmetries.size(); i++) {
+            for (Card card : CardSet.FULL_DECK.toList()) {
+                Card image = symmetries.permute(i, card);
+                assertEquals(card.getRank(), image.getRank());
+                assertEquals(image.id(), symmetries.permute(i, card.id()));
+                assertEquals(1L << image.id(), symmetries.permute(i, 1L << card.id()));
+            }
+        }
+    }
+
+    @Test
+    public void testCanonicalize_Situation() {
+        CardSet board = CardSet.of(Card.get(Rank.TWO, Suit.SPADES), Card.get(Rank.SEVEN, Suit.CLUBS),
+                Card.get(Rank.NINE, Suit.DIAMONDS));
+        CardSet otherHole = CardSet.of(Card.get(Rank.ACE, Suit.HEARTS), Card.get(Rank.KING, Suit.HEARTS));
+        CardSet otherBoard = CardSet.of(Card.get(Rank.TWO, Suit.HEARTS), Card.get(Rank.SEVEN, Suit.DIAMONDS),
+                Card.get(Rank.NINE, Suit.SPADES));
+
+        SuitIsomorphism.Canonical canonical = SuitIsomorphism.canonicalize(ACE_KING_SUITED, board);
+        assertEquals(canonical, SuitIsomorphism.canonicalize(otherHole, otherBoard));
+        assertEquals(24, canonical.getMultiplicity());
+        assertNotEquals(canonical, SuitIsomorphism.canonicalize(otherHole, board));
+
+        // a suited hand on an empty board is one of 4 situations
+        assertEquals(4, SuitIsomorphism.canonicalize(ACE_KING_SUITED, CardSet.EMPTY).getMultiplicity());
+    }
+
+    @Test
+    public void testExhaustive_CountsEveryBoard() {
+        Card[][] holeCards = {
+                { Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES) },
+                { Card.get(Rank.QUEEN, Suit.HEARTS), Card.get(Rank.QUEEN, Suit.DIAMONDS) },
+        };
+        // hearts and diamonds can be swapped
+        long[][] results = ExhaustiveSimulation.run(holeCards, new Card[0], 0, Long.MAX_VALUE);
+        assertEquals(BoardEnumerator.count(48, 5), results[0][0] + results[0][1] + results[0][2]);
+        assertEquals(results[0][0], results[1][2]);
+        assertEquals(results[0][1], results[1][1]);
+    }
+}